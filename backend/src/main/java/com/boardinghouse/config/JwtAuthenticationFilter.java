@@ -1,6 +1,7 @@
 package com.boardinghouse.config;
 
 import com.boardinghouse.service.JwtService;
+import com.boardinghouse.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +26,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(
@@ -43,6 +45,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             String jwt = authHeader.substring(7);
 
+            if (tokenRevocationService.isRevoked(jwtService.extractTokenId(jwt))) {
+                log.debug("Rejected revoked JWT");
+                filterChain.doFilter(request, response);
+                return;
+            }
+
             String userEmail = jwtService.extractUsername(jwt);
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -3,13 +3,14 @@ package com.boardinghouse.config;
 import com.boardinghouse. entity.User;
 import com.boardinghouse.repository.UserRepository;
 import com.boardinghouse.service.JwtService;
+import com.boardinghouse.service.RefreshTokenService;
 import jakarta.servlet.http. HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation. Value;
 import org.springframework.security. core.Authentication;
-import org.springframework. security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework. security.oauth2. core.user.OAuth2User;
 import org.springframework.security.web.authentication. SimpleUrlAuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
@@ -26,12 +27,12 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
 
     private final UserRepository userRepository;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final PasswordEncoder passwordEncoder;
 
     @Value("${app. cors.allowed-origins:http://localhost:5173}")
     private String allowedOrigins;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
                                         Authentication authentication) throws IOException {
@@ -71,6 +72,7 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
 
         // Generate JWT
         String token = jwtService. generateToken(user);
+        String refreshToken = refreshTokenService.issue(user);
 
         String frontendUrl = System.getenv("FRONTEND_URL");
         if (frontendUrl == null || frontendUrl.trim(). isEmpty()) {
@@ -79,6 +81,7 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
         
         String targetUrl = UriComponentsBuilder.fromUriString(frontendUrl + "/google-callback")
                 .queryParam("token", token)
+                .queryParam("refreshToken", refreshToken)
                 .queryParam("id", user.getId())
                 .queryParam("email", user. getEmail())
                 .queryParam("name", user.getName())
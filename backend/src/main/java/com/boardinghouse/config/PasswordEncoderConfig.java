@@ -0,0 +1,64 @@
+package com.boardinghouse.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+@Configuration
+@Slf4j
+public class PasswordEncoderConfig {
+
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 14;
+
+    @Value("${security.bcrypt.strength:0}")
+    private int configuredStrength;
+
+    @Value("${security.bcrypt.target-millis:100}")
+    private long targetMillis;
+
+    @Value("${security.bcrypt.threads:0}")
+    private int threads;
+
+    @Value("${security.bcrypt.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${security.bcrypt.timeout-millis:5000}")
+    private long timeoutMillis;
+
+    // Password encoder (BCrypt on a bounded executor)
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder() {
+        int strength = configuredStrength > 0 ? configuredStrength : calibrateStrength();
+        // Leave at least half of the cores to request threads
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        log.info("BCrypt strength {} on {} hashing threads (queue capacity {})", strength, poolSize, queueCapacity);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), strength, poolSize,
+                queueCapacity, timeoutMillis);
+    }
+
+    /**
+     * Pick the highest strength whose hash still takes about targetMillis on this machine.
+     * Each strength step doubles the cost, so one measurement at the minimum is enough.
+     */
+    private int calibrateStrength() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+        encoder.encode("warm-up");
+
+        long start = System.nanoTime();
+        encoder.encode("calibration");
+        encoder.encode("calibration");
+        double millis = (System.nanoTime() - start) / 2 / 1_000_000.0;
+
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && millis * 2 <= targetMillis) {
+            strength++;
+            millis *= 2;
+        }
+        log.info("BCrypt self-benchmark: strength {} takes ~{} ms", strength, Math.round(millis));
+        return strength;
+    }
+}
@@ -1,18 +1,27 @@
 package com.boardinghouse.controller;
 
+import com.boardinghouse.config.BoundedPasswordEncoder;
+import com.boardinghouse.dto.DuplicateListingResponse;
 import com.boardinghouse.dto.ListingResponse;
 import com.boardinghouse.dto.RejectListingRequest;
+import com.boardinghouse.dto.SchoolRequest;
+import com.boardinghouse.dto.SchoolResponse;
 import com.boardinghouse.dto.UserResponse;
 import com.boardinghouse.dto.UserUpdateRequest;
-import com.boardinghouse.entity.Listing;
 import com.boardinghouse.service.AdminService;
+import com.boardinghouse.service.HotListingService;
+import com.boardinghouse.service.LoginAttemptService;
 import com.boardinghouse.service.ListingService;
+import com.boardinghouse.service.SchoolService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -22,6 +31,10 @@ public class AdminController {
 
     private final AdminService adminService;
     private final ListingService listingService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final LoginAttemptService loginAttemptService;
+    private final SchoolService schoolService;
+    private final HotListingService hotListingService;
 
     // ==================== USER MANAGEMENT ====================
 
@@ -72,8 +85,7 @@ public class AdminController {
     @GetMapping("/listings")
     public ResponseEntity<List<ListingResponse>> getAllListings() {
         try {
-            List<Listing> listings = listingService.getAll();
-            return ResponseEntity.ok(listingService.toResponseList(listings));
+            return ResponseEntity.ok(adminService.getAllListings());
         } catch (Exception e) {
             System.err.println("Error getting listings: " + e.getMessage());
             e.printStackTrace();
@@ -81,6 +93,12 @@ public class AdminController {
         }
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/listing/{id}/duplicates")
+    public ResponseEntity<List<DuplicateListingResponse>> getPossibleDuplicates(@PathVariable Long id) {
+        return ResponseEntity.ok(adminService.getPossibleDuplicates(id));
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/listing/{id}/approve")
     public ResponseEntity<ListingResponse> approveListing(@PathVariable Long id) {
@@ -122,4 +140,68 @@ public class AdminController {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    // ==================== SCHOOLS ====================
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/schools")
+    public ResponseEntity<List<SchoolResponse>> getSchools() {
+        return ResponseEntity.ok(schoolService.getAll());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/schools")
+    public ResponseEntity<SchoolResponse> createSchool(@Valid @RequestBody SchoolRequest request) {
+        return ResponseEntity.ok(schoolService.create(request));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/schools/{id}")
+    public ResponseEntity<SchoolResponse> updateSchool(
+            @PathVariable Long id,
+            @Valid @RequestBody SchoolRequest request) {
+        return ResponseEntity.ok(schoolService.update(id, request));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/schools/{id}")
+    public ResponseEntity<Void> deleteSchool(@PathVariable Long id) {
+        schoolService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ==================== DIAGNOSTICS ====================
+
+    // Most requested listing pages (Count-Min Sketch estimates), which are pinned, and cache stats
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/diagnostics/hot-listings")
+    public ResponseEntity<Map<String, Object>> getHotListings() {
+        return ResponseEntity.ok(hotListingService.getDiagnostics());
+    }
+
+    // ==================== SECURITY ====================
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/security/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordEncoder.getStats());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/security/lockouts")
+    public ResponseEntity<Map<String, Object>> getLoginLockouts() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("lockouts", loginAttemptService.getLockouts());
+        response.put("stats", loginAttemptService.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/security/lockouts")
+    public ResponseEntity<Map<String, Integer>> clearLoginLockout(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String ip) {
+        int cleared = loginAttemptService.clear(email, ip);
+        return ResponseEntity.ok(Map.of("cleared", cleared));
+    }
+}
@@ -2,9 +2,14 @@ package com.boardinghouse.controller;
 
 import com.boardinghouse.dto.*;
 import com.boardinghouse.entity.User;
+import com.boardinghouse.exception.LoginBlockedException;
+import com.boardinghouse.exception.PasswordHashingOverloadedException;
 import com.boardinghouse.service.AuthService;
+import com.boardinghouse.service.LoginAttemptService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -17,12 +22,15 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginAttemptService loginAttemptService;
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
         try {
             AuthResponse response = authService.register(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (PasswordHashingOverloadedException e) {
+            throw e; // 503, handled globally
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(AuthResponse.builder()
@@ -33,10 +41,21 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
         try {
-            AuthResponse response = authService.login(request);
+            String clientIp = loginAttemptService.resolveClientIp(httpRequest);
+            AuthResponse response = authService.login(request, clientIp);
             return ResponseEntity.ok(response);
+        } catch (LoginBlockedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(AuthResponse.builder()
+                            .message(e.getMessage())
+                            .token(null)
+                            .build());
+        } catch (PasswordHashingOverloadedException e) {
+            throw e; // 503, handled globally
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(AuthResponse.builder()
@@ -55,8 +74,26 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success("Token is valid", user.getEmail()));
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            return ResponseEntity.ok(authService.refresh(request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(AuthResponse.builder()
+                            .message(e.getMessage())
+                            .token(null)
+                            .build());
+        }
+    }
+
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
+    public ResponseEntity<?> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) RefreshTokenRequest request) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        String refreshToken = request != null ? request.getRefreshToken() : null;
+        authService.logout(accessToken, refreshToken);
         return ResponseEntity.ok(ApiResponse.success("Logged out successfully"));
     }
 
@@ -1,15 +1,23 @@
 package com.boardinghouse.controller;
 
+import com.boardinghouse.dto.BatchGeocodeRequest;
 import com.boardinghouse.service.GeocodingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Controller for geocoding operations using Nominatim (OpenStreetMap)
+ * Controller for geocoding operations (local gazetteer, then Nominatim)
  */
 @RestController
 @RequestMapping("/api/geocoding")
@@ -17,7 +25,13 @@ import java.util.Map;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
 public class GeocodingController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final GeocodingService geocodingService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${geocoding.batch.max-addresses:100}")
+    private int batchMaxAddresses;
 
     /**
      * Search for location suggestions
@@ -42,6 +56,37 @@ public class GeocodingController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Geocode many addresses at once (landlords/admins only)
+     * POST /api/geocoding/batch  {"addresses": ["...", "..."]}
+     * Streams one JSON object per line (NDJSON) as each address resolves, so lines
+     * arrive out of order; each carries the "index" of its address in the request.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<StreamingResponseBody> geocodeBatch(@Valid @RequestBody BatchGeocodeRequest request) {
+        List<String> addresses = request.getAddresses();
+        if (addresses.size() > batchMaxAddresses) {
+            throw new RuntimeException("At most " + batchMaxAddresses + " addresses per batch");
+        }
+
+        StreamingResponseBody body = out -> {
+            try {
+                geocodingService.geocodeBatch(addresses, line -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(line));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
     /**
      * Reverse geocode coordinates to address
      * GET /api/geocoding/reverse?lat=0.0&lon=0.0
@@ -4,11 +4,16 @@ import com.boardinghouse.dto.InquiryResponse;
 import com.boardinghouse.dto.ListingRequest;
 import com.boardinghouse.dto.ListingResponse;
 import com.boardinghouse.dto.ReplyRequest;
+import com.boardinghouse.dto.ViewTimeseriesResponse;
 import com.boardinghouse.entity.Inquiry;
 import com.boardinghouse.entity.Listing;
+import com.boardinghouse.entity.ListingViewRollup;
 import com.boardinghouse.entity.User;
+import com.boardinghouse.repository.ListingViewCountRow;
 import com.boardinghouse.service.InquiryService;
 import com.boardinghouse.service.ListingService;
+import com.boardinghouse.service.ListingViewStatsService;
+import com.boardinghouse.service.ListingViewerService;
 import com.boardinghouse.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +21,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +38,8 @@ public class LandlordController {
     private final ListingService listingService;
     private final UserService userService;
     private final InquiryService inquiryService;
+    private final ListingViewStatsService listingViewStatsService;
+    private final ListingViewerService listingViewerService;
 
     @PreAuthorize("hasRole('LANDLORD')")
     @PostMapping("/listing")
@@ -114,14 +125,68 @@ public class LandlordController {
         return ResponseEntity.ok(inquiryService.toResponse(updated));
     }
 
-    // ⭐ Get total views for landlord's listings
+    // ⭐ Get total views for landlord's listings, plus distinct viewers across them
     @PreAuthorize("hasRole('LANDLORD')")
     @GetMapping("/stats/views")
-    public ResponseEntity<Map<String, Integer>> getTotalViews(Authentication authentication) {
+    public ResponseEntity<Map<String, Object>> getTotalViews(Authentication authentication) {
         User landlord = (User) authentication.getPrincipal();
         Integer totalViews = listingService.getTotalViewsByLandlord(landlord.getId());
-        Map<String, Integer> response = new HashMap<>();
+        List<Long> listingIds = listingService.getIdsByLandlord(landlord.getId());
+        Map<String, Object> response = new HashMap<>();
         response.put("totalViews", totalViews);
+        response.put("uniqueViewers", listingViewerService.getUniqueViewersAcross(listingIds));
         return ResponseEntity.ok(response);
     }
+
+    // ⭐ Raw views and estimated unique viewers for each of the landlord's listings
+    @PreAuthorize("hasRole('LANDLORD')")
+    @GetMapping("/stats/views/listings")
+    public ResponseEntity<List<Map<String, Object>>> getViewsByListing(Authentication authentication) {
+        User landlord = (User) authentication.getPrincipal();
+        List<ListingViewCountRow> listings = listingService.getViewCountsByLandlord(landlord.getId());
+        Map<Long, Long> uniqueViewers = listingViewerService.getUniqueViewers(
+                listings.stream().map(ListingViewCountRow::getId).toList());
+        List<Map<String, Object>> response = new ArrayList<>();
+        for (ListingViewCountRow listing : listings) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("listingId", listing.getId());
+            row.put("title", listing.getTitle());
+            row.put("views", listing.getViewCount() != null ? listing.getViewCount() : 0);
+            row.put("uniqueViewers", uniqueViewers.get(listing.getId()));
+            response.add(row);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // ⭐ Views over time, from hourly/daily/weekly rollups
+    // listingId narrows it to one of the landlord's listings; the default range is the last 30 days
+    // GET /api/landlord/stats/views/timeseries?granularity=DAY&from=2026-09-01&to=2026-10-01
+    @PreAuthorize("hasRole('LANDLORD')")
+    @GetMapping("/stats/views/timeseries")
+    public ResponseEntity<ViewTimeseriesResponse> getViewTimeseries(
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Long listingId,
+            Authentication authentication) {
+        User landlord = (User) authentication.getPrincipal();
+        if (listingId != null) {
+            Listing listing = listingService.getById(listingId);
+            if (listing.getLandlord() == null || !listing.getLandlord().getId().equals(landlord.getId())) {
+                throw new RuntimeException("You can only view stats for your own listings");
+            }
+        }
+
+        ListingViewRollup.Granularity bucket;
+        LocalDateTime end;
+        LocalDateTime start;
+        try {
+            bucket = ListingViewRollup.Granularity.valueOf(granularity.toUpperCase());
+            end = to != null ? LocalDate.parse(to).atStartOfDay() : LocalDate.now().plusDays(1).atStartOfDay();
+            start = from != null ? LocalDate.parse(from).atStartOfDay() : end.minusDays(30);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("granularity must be HOUR, DAY or WEEK and dates yyyy-MM-dd");
+        }
+        return ResponseEntity.ok(listingViewStatsService.getTimeseries(landlord.getId(), listingId, bucket, start, end));
+    }
 }
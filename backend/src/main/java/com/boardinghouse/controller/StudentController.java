@@ -2,7 +2,10 @@ package com.boardinghouse.controller;
 
 import com.boardinghouse.dto.*;
 import com.boardinghouse.entity.*;
+import com.boardinghouse.ranking.RankingQuery;
 import com.boardinghouse.service.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,6 +28,20 @@ public class StudentController {
     private final InquiryService inquiryService;
     private final FavoriteService favoriteService;
     private final RatingService ratingService;
+    private final ListingClusterService listingClusterService;
+    private final NearestListingService nearestListingService;
+    private final SchoolService schoolService;
+    private final ListingRankingService listingRankingService;
+    private final RecommendationService recommendationService;
+    private final SimilarListingService similarListingService;
+    private final SavedSearchService savedSearchService;
+    private final NotificationService notificationService;
+    private final ListingViewerService listingViewerService;
+    private final LoginAttemptService loginAttemptService;
+    private final ListingCache listingCache;
+    private final TrendingListingService trendingListingService;
+    private final HotListingService hotListingService;
+    private final ListingDetailService listingDetailService;
 
     // ⭐ Get all approved listings (with optional search and distance filtering)
     @GetMapping("/listings")
@@ -53,20 +70,145 @@ public class StudentController {
                 .collect(Collectors.toList());
         }
         
-        return listingService.toResponseList(found);
+        List<ListingResponse> responses = listingService.toResponseList(found);
+        if (lat != null && lon != null) {
+            responses.stream()
+                .filter(r -> r.getLatitude() != null && r.getLongitude() != null)
+                .forEach(r -> r.setDistanceKm(geocodingService.calculateDistance(lat, lon, r.getLatitude(), r.getLongitude())));
+        }
+        return responses;
+    }
+
+    // ⭐ The k closest approved listings to a point, nearest first (no radius needed)
+    // GET /api/student/listings/nearest?lat=14.6&lon=121.0&k=20
+    @GetMapping("/listings/nearest")
+    public List<ListingResponse> getNearestListings(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "20") int k) {
+        return nearestListingService.findNearest(lat, lon, k);
+    }
+
+    // ⭐ Map markers for a viewport: clusters when zoomed out, single listings when zoomed in
+    // GET /api/student/listings/clusters?bbox=minLon,minLat,maxLon,maxLat&zoom=12
+    @GetMapping("/listings/clusters")
+    public List<ListingClusterResponse> getListingClusters(
+            @RequestParam String bbox,
+            @RequestParam int zoom) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new RuntimeException("bbox must be minLon,minLat,maxLon,maxLat");
+        }
+        try {
+            return listingClusterService.getClusters(
+                    Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()),
+                    Double.parseDouble(parts[2].trim()), Double.parseDouble(parts[3].trim()),
+                    zoom);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("bbox must be minLon,minLat,maxLon,maxLat");
+        }
+    }
+
+    // ⭐ What's hot: listings with the most recent views, favorites and inquiries (decayed over days)
+    // GET /api/student/listings/trending?limit=10
+    @GetMapping("/listings/trending")
+    public List<ListingResponse> getTrendingListings(@RequestParam(defaultValue = "10") int limit) {
+        return trendingListingService.getTrending(limit);
+    }
+
+    // ⭐ Best-rated approved listings, by Bayesian average so a lone 5-star review doesn't top the list
+    // GET /api/student/listings/top-rated?limit=20
+    @GetMapping("/listings/top-rated")
+    public List<ListingResponse> getTopRatedListings(@RequestParam(defaultValue = "20") int limit) {
+        return listingService.toResponseList(listingService.getTopRated(limit));
+    }
+
+    // ⭐ Approved listings ranked by text match, distance, price fit, rating, recency and popularity
+    // budget defaults to the student's profile budget
+    // GET /api/student/listings/ranked?q=near+usjr&lat=10.29&lon=123.9&limit=20
+    @GetMapping("/listings/ranked")
+    public List<ListingResponse> getRankedListings(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Integer budget,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        RankingQuery query = RankingQuery.builder()
+                .text(q)
+                .latitude(lat)
+                .longitude(lon)
+                .budget(budget != null ? budget : user.getBudget())
+                .nowMillis(System.currentTimeMillis())
+                .build();
+        return listingRankingService.rank(query, limit);
+    }
+
+    // ⭐ Recommendations from the student's profile (preferred location, room type, budget),
+    // re-ranked by their favorites and ratings
+    @PreAuthorize("hasRole('STUDENT')")
+    @GetMapping("/recommendations")
+    public List<ListingResponse> getRecommendations(
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+        User student = (User) authentication.getPrincipal();
+        return recommendationService.recommend(student, limit);
+    }
+
+    // ⭐ Registered schools (with coordinates) students can search around
+    @GetMapping("/schools")
+    public List<SchoolResponse> getSchools() {
+        return schoolService.getAll();
+    }
+
+    // ⭐ Approved listings within withinKm of a school, nearest first
+    // GET /api/student/schools/3/listings?withinKm=2
+    @GetMapping("/schools/{id}/listings")
+    public List<ListingResponse> getListingsNearSchool(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "2") double withinKm,
+            @RequestParam(defaultValue = "100") int limit) {
+        return schoolService.getListingsNear(id, withinKm, limit);
     }
 
     // ⭐ Get single listing details (only approved listings visible to students)
     @GetMapping("/listing/{id}")
     public ListingResponse getListing(@PathVariable Long id) {
-        Listing listing = listingService.getById(id);
-        
-        // Only show approved listings to students
-        if (listing.getStatus() != Listing.ListingStatus.APPROVED) {
-            throw new RuntimeException("Listing not available");
-        }
-        
-        return listingService.toResponse(listing);
+        // Only approved listings are visible to students (cached, see ListingCache)
+        ListingResponse response = listingCache.getApproved(id);
+        hotListingService.record(id);
+        return response;
+    }
+    
+    // ⭐ Listing detail screen in one call: listing, first page of ratings, my rating and favorite
+    // status, gathered in parallel; the view is registered in the background. Parts that fail or
+    // time out are left out and listed in "unavailable"
+    // GET /api/student/listing/5/full
+    @GetMapping("/listing/{id}/full")
+    public ListingDetailResponse getListingDetail(
+            @PathVariable Long id,
+            Authentication authentication,
+            HttpServletRequest httpRequest) {
+        User viewer = authentication != null && authentication.getPrincipal() instanceof User user ? user : null;
+        ListingDetailResponse response = listingDetailService.getDetail(id, viewer, viewerKey(authentication, httpRequest));
+        hotListingService.record(id);
+        return response;
+    }
+
+    // ⭐ Several listings in one call (compare, favorites), in request order; at most 100 ids
+    // POST /api/student/listings/batch  { "ids": [4, 9, 2] }
+    @PostMapping("/listings/batch")
+    public ListingBatchResponse getListingsBatch(@RequestBody ListingBatchRequest request) {
+        return listingCache.getBatch(request.getIds());
+    }
+
+    // ⭐ "Students who saved this also saved..." (co-favorites and 4-5 star ratings)
+    @GetMapping("/listing/{id}/similar")
+    public List<ListingResponse> getSimilarListings(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        return similarListingService.findSimilar(id, limit);
     }
     
     // ⭐ Send a message or request a visit to a landlord
@@ -92,13 +234,25 @@ public class StudentController {
 
     // ⭐ Increment view count for a listing
     @PostMapping("/listing/{id}/view")
-    public ResponseEntity<Map<String, Object>> incrementViewCount(@PathVariable Long id) {
-        Listing listing = listingService.incrementViewCount(id);
+    public ResponseEntity<Map<String, Object>> incrementViewCount(
+            @PathVariable Long id,
+            Authentication authentication,
+            HttpServletRequest httpRequest) {
+        int viewCount = listingService.incrementViewCount(id);
+        listingViewerService.recordViewer(id, viewerKey(authentication, httpRequest));
+        trendingListingService.recordView(id);
         Map<String, Object> response = new HashMap<>();
-        response.put("viewCount", listing.getViewCount());
+        response.put("viewCount", viewCount);
         return ResponseEntity.ok(response);
     }
 
+    // Signed-in viewers count by account; anyone else by IP and browser
+    private String viewerKey(Authentication authentication, HttpServletRequest httpRequest) {
+        return authentication != null && authentication.getPrincipal() instanceof User viewer
+                ? "u:" + viewer.getId()
+                : "a:" + loginAttemptService.resolveClientIp(httpRequest) + "|" + httpRequest.getHeader("User-Agent");
+    }
+
     // =====================
     // FAVORITES ENDPOINTS
     // =====================
@@ -114,24 +268,51 @@ public class StudentController {
         return ResponseEntity.ok(favoriteService.toResponse(favorite));
     }
 
-    // ⭐ Remove a listing from favorites
+    // ⭐ Save a listing to favorites; safe to repeat (double-clicks, retries)
+    // PUT /api/student/favorite/5  ->  { "listingId": 5, "favorited": true, "changed": true }
+    @PreAuthorize("hasRole('STUDENT')")
+    @PutMapping("/favorite/{listingId}")
+    public Map<String, Object> putFavorite(
+            @PathVariable Long listingId,
+            Authentication authentication) {
+        User student = (User) authentication.getPrincipal();
+        boolean changed = favoriteService.putFavorite(listingId, student);
+        return favoriteState(listingId, true, changed);
+    }
+
+    // ⭐ Remove a listing from favorites; safe to repeat, succeeds if it wasn't saved
     @PreAuthorize("hasRole('STUDENT')")
     @DeleteMapping("/favorite/{listingId}")
-    public ResponseEntity<Void> removeFavorite(
+    public Map<String, Object> removeFavorite(
             @PathVariable Long listingId,
             Authentication authentication) {
         User student = (User) authentication.getPrincipal();
-        favoriteService.removeFavorite(listingId, student);
-        return ResponseEntity.ok().build();
+        boolean changed = favoriteService.removeFavorite(listingId, student);
+        return favoriteState(listingId, false, changed);
+    }
+
+    private static Map<String, Object> favoriteState(Long listingId, boolean favorited, boolean changed) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("listingId", listingId);
+        response.put("favorited", favorited);
+        response.put("changed", changed);
+        return response;
     }
 
-    // ⭐ Get all favorites for the current student
+    // ⭐ Get favorites for the current student as listing cards, newest first
+    // Without limit: the full list, as before. With limit: one page plus nextCursor to pass back
+    // GET /api/student/favorites?limit=20&cursor=...
     @PreAuthorize("hasRole('STUDENT')")
     @GetMapping("/favorites")
-    public ResponseEntity<List<FavoriteResponse>> getFavorites(Authentication authentication) {
+    public ResponseEntity<?> getFavorites(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            Authentication authentication) {
         User student = (User) authentication.getPrincipal();
-        List<Favorite> favorites = favoriteService.getFavoritesByUser(student.getId());
-        return ResponseEntity.ok(favoriteService.toResponseList(favorites));
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(favoriteService.getFavoriteCards(student.getId()));
+        }
+        return ResponseEntity.ok(favoriteService.getFavoriteCardsPage(student.getId(), cursor, limit != null ? limit : 20));
     }
 
     // ⭐ Check if a listing is favorited
@@ -147,6 +328,89 @@ public class StudentController {
         return ResponseEntity.ok(response);
     }
 
+    // ⭐ Favorited flags for a page of listings in one call
+    // POST /api/student/favorites/contains  { "listingIds": [3, 8, 12] }  ->  { "3": true, "8": false, "12": false }
+    @PreAuthorize("hasRole('STUDENT')")
+    @PostMapping("/favorites/contains")
+    public Map<Long, Boolean> favoritesContain(
+            @RequestBody FavoriteContainsRequest request,
+            Authentication authentication) {
+        User student = (User) authentication.getPrincipal();
+        return favoriteService.areFavorites(student.getId(), request.getListingIds());
+    }
+
+    // =====================
+    // SAVED SEARCHES & NOTIFICATIONS
+    // =====================
+
+    // ⭐ Saved searches; newly approved listings that match one create a notification
+    @PreAuthorize("hasRole('STUDENT')")
+    @GetMapping("/saved-searches")
+    public List<SavedSearchResponse> getSavedSearches(Authentication authentication) {
+        User student = (User) authentication.getPrincipal();
+        return savedSearchService.getByStudent(student.getId());
+    }
+
+    @PreAuthorize("hasRole('STUDENT')")
+    @PostMapping("/saved-searches")
+    public ResponseEntity<SavedSearchResponse> createSavedSearch(
+            @Valid @RequestBody SavedSearchRequest request,
+            Authentication authentication) {
+        User student = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(savedSearchService.create(request, student));
+    }
+
+    @PreAuthorize("hasRole('STUDENT')")
+    @PutMapping("/saved-searches/{id}")
+    public ResponseEntity<SavedSearchResponse> updateSavedSearch(
+            @PathVariable Long id,
+            @Valid @RequestBody SavedSearchRequest request,
+            Authentication authentication) {
+        User student = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(savedSearchService.update(id, request, student));
+    }
+
+    @PreAuthorize("hasRole('STUDENT')")
+    @DeleteMapping("/saved-searches/{id}")
+    public ResponseEntity<Void> deleteSavedSearch(
+            @PathVariable Long id,
+            Authentication authentication) {
+        User student = (User) authentication.getPrincipal();
+        savedSearchService.delete(id, student);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ⭐ Latest notifications, newest first
+    // GET /api/student/notifications?unreadOnly=true&limit=20
+    @PreAuthorize("hasRole('STUDENT')")
+    @GetMapping("/notifications")
+    public ResponseEntity<Map<String, Object>> getNotifications(
+            @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+        User student = (User) authentication.getPrincipal();
+        Map<String, Object> response = new HashMap<>();
+        response.put("notifications", notificationService.getNotifications(student.getId(), unreadOnly, limit));
+        response.put("unreadCount", notificationService.countUnread(student.getId()));
+        return ResponseEntity.ok(response);
+    }
+
+    @PreAuthorize("hasRole('STUDENT')")
+    @PutMapping("/notifications/{id}/read")
+    public ResponseEntity<NotificationResponse> markNotificationRead(
+            @PathVariable Long id,
+            Authentication authentication) {
+        User student = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(notificationService.markRead(student.getId(), id));
+    }
+
+    @PreAuthorize("hasRole('STUDENT')")
+    @PutMapping("/notifications/read-all")
+    public ResponseEntity<Map<String, Integer>> markAllNotificationsRead(Authentication authentication) {
+        User student = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(Map.of("updated", notificationService.markAllRead(student.getId())));
+    }
+
     // =====================
     // RATING ENDPOINTS
     // =====================
@@ -176,10 +440,28 @@ public class StudentController {
         return ResponseEntity.ok(ratingService.toResponse(rating));
     }
 
-    // ⭐ Get all ratings for a listing
+    // ⭐ Get ratings for a listing, newest first
+    // Without limit: the full list, as before. With limit: one page plus nextCursor to pass back,
+    // and reviewLength cuts reviews server-side (reviewTruncated marks the ones to fetch in full)
+    // GET /api/student/listing/5/ratings?limit=10&reviewLength=200&cursor=...
     @GetMapping("/listing/{listingId}/ratings")
-    public ResponseEntity<List<RatingResponse>> getListingRatings(@PathVariable Long listingId) {
-        List<Rating> ratings = ratingService.getRatingsByListing(listingId);
-        return ResponseEntity.ok(ratingService.toResponseList(ratings));
+    public ResponseEntity<?> getListingRatings(
+            @PathVariable Long listingId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer reviewLength) {
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(ratingService.getRatingResponses(listingId));
+        }
+        return ResponseEntity.ok(ratingService.getRatingsPage(listingId, cursor, limit != null ? limit : 20, reviewLength));
+    }
+
+    // ⭐ Full text of one review, for ratings listed with reviewTruncated
+    @GetMapping("/listing/{listingId}/ratings/{ratingId}/review")
+    public Map<String, Object> getFullReview(@PathVariable Long listingId, @PathVariable Long ratingId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", ratingId);
+        response.put("review", ratingService.getFullReview(listingId, ratingId));
+        return response;
     }
 }
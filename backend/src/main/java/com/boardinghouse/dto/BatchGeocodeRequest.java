@@ -0,0 +1,15 @@
+package com.boardinghouse.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchGeocodeRequest {
+    @NotEmpty(message = "At least one address is required")
+    private List<String> addresses;
+}
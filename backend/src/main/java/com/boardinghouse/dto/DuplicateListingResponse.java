@@ -0,0 +1,13 @@
+package com.boardinghouse.dto;
+
+import lombok.Data;
+
+@Data
+public class DuplicateListingResponse {
+    private Long listingId;
+    private String title;
+    private String location;
+    private String status;
+    private Long landlordId;
+    private Double similarity; // estimated Jaccard similarity, 0..1
+}
@@ -0,0 +1,10 @@
+package com.boardinghouse.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class FavoriteContainsRequest {
+    private List<Long> listingIds;
+}
@@ -10,5 +10,11 @@ public class FavoriteResponse {
     private String listingImage;
     private String listingLocation;
     private Double listingPrice;
+    private String listingRoomType;
+    private Double listingRating;
+    private Integer listingReviews;
+    private Boolean listingAvailable;
+    private String listingStatus;
+    private Integer listingFavoriteCount;
     private String createdAt;
 }
@@ -0,0 +1,10 @@
+package com.boardinghouse.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ListingBatchRequest {
+    private List<Long> ids;
+}
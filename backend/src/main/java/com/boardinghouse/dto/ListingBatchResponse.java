@@ -0,0 +1,23 @@
+package com.boardinghouse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingBatchResponse {
+    private List<Item> listings; // one per requested id, in request order
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long id;
+        private boolean found; // false when the listing doesn't exist or isn't approved
+        private ListingResponse listing;
+    }
+}
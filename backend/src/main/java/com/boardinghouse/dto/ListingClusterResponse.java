@@ -0,0 +1,16 @@
+package com.boardinghouse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingClusterResponse {
+    private Double latitude;
+    private Double longitude;
+    private Integer count;
+    private Long listingId;       // set when the marker is a single listing
+    private Integer expansionZoom; // set for clusters: zoom at which it splits apart
+}
@@ -0,0 +1,14 @@
+package com.boardinghouse.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ListingDetailResponse {
+    private ListingResponse listing;
+    private CursorPage<RatingResponse> ratings; // first page, reviews truncated
+    private RatingResponse myRating; // students only; null if they haven't rated it
+    private Boolean favorited; // students only
+    private List<String> unavailable; // parts that failed or timed out and were left out
+}
@@ -16,6 +16,8 @@ public class ListingResponse {
     private String roomType;
     private Double rating;
     private Integer reviews;
+    private Double bayesianRating; // rating shrunk toward the catalog mean, used for ordering
+    private List<Integer> ratingHistogram; // counts of 1..5 star ratings
     private Boolean available;
     private List<String> amenities;
     private Double latitude;
@@ -26,6 +28,10 @@ public class ListingResponse {
     private String status; // PENDING, APPROVED, REJECTED
     private String rejectionNotes;
     private Integer viewCount;
+    private Integer favoriteCount; // students who saved it, refreshed every few seconds
+    private String createdAt;
+    private Double distanceKm; // great-circle distance from the query point, when there is one
+    private List<Long> possibleDuplicateIds; // admin view only, for PENDING listings
     private LandlordInfo landlord;
     
     @Data
@@ -0,0 +1,13 @@
+package com.boardinghouse.dto;
+
+import lombok.Data;
+
+@Data
+public class NotificationResponse {
+    private Long id;
+    private String type; // SAVED_SEARCH_MATCH
+    private Long listingId;
+    private String message;
+    private Boolean read;
+    private String createdAt;
+}
@@ -7,6 +7,7 @@ public class RatingResponse {
     private Long id;
     private Integer rating;
     private String review;
+    private Boolean reviewTruncated; // review was cut to the requested length; fetch the rest separately
     private String createdAt;
     private String updatedAt;
     private UserInfo user;
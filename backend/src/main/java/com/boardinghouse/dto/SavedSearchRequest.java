@@ -0,0 +1,40 @@
+package com.boardinghouse.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class SavedSearchRequest {
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 100)
+    private String name;
+
+    @Size(max = 200)
+    private String query;
+
+    private String roomType;
+
+    @PositiveOrZero
+    private Double minPrice;
+
+    @PositiveOrZero
+    private Double maxPrice;
+
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    private Double latitude;
+
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    private Double longitude;
+
+    @DecimalMin(value = "0.0", inclusive = false)
+    private Double radiusKm;
+
+    private Boolean notify;
+}
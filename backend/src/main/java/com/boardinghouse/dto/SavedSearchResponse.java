@@ -0,0 +1,18 @@
+package com.boardinghouse.dto;
+
+import lombok.Data;
+
+@Data
+public class SavedSearchResponse {
+    private Long id;
+    private String name;
+    private String query;
+    private String roomType;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+    private Boolean notify;
+    private String createdAt;
+}
@@ -0,0 +1,14 @@
+package com.boardinghouse.dto;
+
+import lombok.Data;
+
+@Data
+public class SchoolResponse {
+    private Long id;
+    private String name;
+    private String shortName;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    private Integer nearbyListingCount; // approved listings within the indexed radius
+}
@@ -0,0 +1,26 @@
+package com.boardinghouse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class ViewTimeseriesResponse {
+    private String granularity; // HOUR, DAY or WEEK
+    private String from;
+    private String to;
+    private Long listingId;     // null when covering all of the landlord's listings
+    private Long totalViews;
+    private List<Point> points;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        private String bucketStart;
+        private String granularity; // the point's own bucket size; coarser than requested once finer rows expired
+        private Long views;
+    }
+}
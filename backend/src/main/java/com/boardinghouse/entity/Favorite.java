@@ -9,6 +9,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "favorites", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "listing_id"})
+}, indexes = {
+    @Index(name = "idx_favorite_user_created", columnList = "user_id, created_at, id")
 })
 @Data
 @NoArgsConstructor
@@ -4,8 +4,12 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "listings")
+@Table(name = "listings", indexes = {
+    @Index(name = "idx_listing_status_bayesian_rating", columnList = "status, bayesian_rating")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,10 +49,30 @@ public class Listing {
 
     private String roomType;
 
+    // Rating aggregates are written only by targeted updates in ListingRepository (see
+    // RatingService), so saving a Listing loaded earlier can't overwrite newer values
+    @Column(updatable = false)
     private Double rating;
 
+    @Column(updatable = false)
     private Integer reviews;
 
+    // Star histogram: how many 1..5 star ratings (null until backfilled, counts as 0)
+    @Column(updatable = false)
+    private Integer stars1;
+    @Column(updatable = false)
+    private Integer stars2;
+    @Column(updatable = false)
+    private Integer stars3;
+    @Column(updatable = false)
+    private Integer stars4;
+    @Column(updatable = false)
+    private Integer stars5;
+
+    // Rating shrunk toward the catalog-wide mean (see RatingPriorService); used for sorting
+    @Column(name = "bayesian_rating", updatable = false)
+    private Double bayesianRating;
+
     private Double price;
 
     private Boolean available = true;
@@ -73,13 +97,29 @@ public class Listing {
     private Double latitude;
     private Double longitude;
 
-    // View counter
+    // View counter. Written only by ListingRepository.incrementViewCount, so saving a
+    // stale entity can't roll increments back
     @Builder.Default
+    @Column(updatable = false)
     private Integer viewCount = 0;
 
+    // Students who saved this listing. Written only by FavoriteCountService's UPDATEs,
+    // so saving the entity never overwrites it; null until first reconciled
+    @Column(name = "favorite_count", insertable = false, updatable = false)
+    private Integer favoriteCount;
+
+    // Null for listings created before this column existed
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
     // Landlord user
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "landlord_id")
     @JsonIgnoreProperties({"password", "listings", "hibernateLazyInitializer", "handler"})
     private User landlord;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
 }
\ No newline at end of file
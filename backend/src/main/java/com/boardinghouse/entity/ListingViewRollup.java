@@ -0,0 +1,51 @@
+package com.boardinghouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Views of one listing within one time bucket. Hourly rows are written by the
+ * view counter; older ones are folded into daily rows, and older daily rows
+ * into weekly ones.
+ */
+@Entity
+@Table(name = "listing_view_rollups", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"listing_id", "granularity", "bucket_start"})
+}, indexes = {
+    @Index(name = "idx_view_rollup_landlord", columnList = "landlord_id, granularity, bucket_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListingViewRollup {
+
+    public enum Granularity {
+        HOUR,
+        DAY,
+        WEEK
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "listing_id", nullable = false)
+    private Long listingId;
+
+    // Denormalized so the landlord dashboard reads one index range
+    @Column(name = "landlord_id")
+    private Long landlordId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 10, nullable = false)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private Long views;
+}
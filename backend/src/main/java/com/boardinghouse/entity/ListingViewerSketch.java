@@ -0,0 +1,27 @@
+package com.boardinghouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * HyperLogLog sketch of the distinct viewers of one listing (see util/HyperLogLog).
+ */
+@Entity
+@Table(name = "listing_viewer_sketches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListingViewerSketch {
+
+    @Id
+    @Column(name = "listing_id")
+    private Long listingId;
+
+    @Column(nullable = false, length = 1536)
+    private byte[] registers;
+
+    private LocalDateTime updatedAt;
+}
@@ -9,6 +9,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "ratings", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "listing_id"})
+}, indexes = {
+    @Index(name = "idx_rating_listing_created", columnList = "listing_id, created_at, id")
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,26 @@
+package com.boardinghouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Access token (by JWT id) that was revoked before its natural expiry.
+ * Rows are only needed until expiresAt and are purged afterwards.
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
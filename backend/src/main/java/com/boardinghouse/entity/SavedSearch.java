@@ -0,0 +1,56 @@
+package com.boardinghouse.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "saved_searches", indexes = {
+    @Index(name = "idx_saved_search_student", columnList = "student_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    @JsonIgnoreProperties({"password", "listings", "hibernateLazyInitializer", "handler"})
+    private User student;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    // Free text matched against the listing's title, location and nearby schools
+    @Column(length = 200)
+    private String query;
+
+    private String roomType;
+    private Double minPrice;
+    private Double maxPrice;
+
+    // Optional geo filter: listings within radiusKm of (latitude, longitude)
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean notify = true;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
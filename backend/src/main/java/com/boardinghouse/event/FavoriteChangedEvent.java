@@ -0,0 +1,13 @@
+package com.boardinghouse.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Published after a student adds or removes a favorite */
+@Getter
+@RequiredArgsConstructor
+public class FavoriteChangedEvent {
+    private final Long userId;
+    private final Long listingId;
+    private final boolean added;
+}
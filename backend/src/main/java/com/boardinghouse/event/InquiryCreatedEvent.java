@@ -0,0 +1,12 @@
+package com.boardinghouse.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Published after a student sends a message or visit request about a listing */
+@Getter
+@RequiredArgsConstructor
+public class InquiryCreatedEvent {
+    private final Long studentId;
+    private final Long listingId;
+}
@@ -0,0 +1,36 @@
+package com.boardinghouse.event;
+
+import com.boardinghouse.entity.Listing;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published after a listing is created, edited, moderated or deleted so that
+ * in-memory indexes can follow the catalog without polling the database.
+ * The listing is the saved entity, or null for DELETED.
+ *
+ * RATED means only the rating aggregates changed (see RatingService); listeners
+ * that index content or coordinates can skip it.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ListingChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        APPROVED,
+        REJECTED,
+        DELETED,
+        RATED
+    }
+
+    private final Long listingId;
+    private final Type type;
+    private final Listing listing;
+
+    /** True when the listing is visible to students after this change */
+    public boolean isVisible() {
+        return listing != null && listing.getStatus() == Listing.ListingStatus.APPROVED;
+    }
+}
@@ -0,0 +1,14 @@
+package com.boardinghouse.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Published after a student creates or changes a rating; previousStars is null for a new rating */
+@Getter
+@RequiredArgsConstructor
+public class RatingChangedEvent {
+    private final Long userId;
+    private final Long listingId;
+    private final Integer previousStars;
+    private final int stars;
+}
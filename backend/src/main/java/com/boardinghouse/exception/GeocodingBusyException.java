@@ -0,0 +1,7 @@
+package com.boardinghouse.exception;
+
+public class GeocodingBusyException extends RuntimeException {
+    public GeocodingBusyException(String message) {
+        super(message);
+    }
+}
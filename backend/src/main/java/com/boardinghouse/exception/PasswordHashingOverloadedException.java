@@ -0,0 +1,7 @@
+package com.boardinghouse.exception;
+
+public class PasswordHashingOverloadedException extends RuntimeException {
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,57 @@
+package com.boardinghouse.ranking;
+
+import com.boardinghouse.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Closeness to the query point, exp(-km / scale). Uses the equirectangular
+ * approximation, which is well within ranking precision at city distances.
+ */
+@Component
+public class DistanceSignal implements RankingSignal {
+
+    @Value("${ranking.weights.distance:2}")
+    private double weight;
+
+    @Value("${ranking.distance.scale-km:3}")
+    private double scaleKm;
+
+    @Override
+    public String getName() {
+        return "distance";
+    }
+
+    @Override
+    public double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public boolean appliesTo(RankingQuery query) {
+        return query.hasLocation();
+    }
+
+    @Override
+    public void accumulate(RankingContext context, double weight, double[] totals) {
+        RankingFeatures f = context.getFeatures();
+        double[] lat = f.getLatitudesRad();
+        double[] lon = f.getLongitudesRad();
+        double qLat = Math.toRadians(context.getQuery().getLatitude());
+        double qLon = Math.toRadians(context.getQuery().getLongitude());
+        double cosLat = Math.cos(qLat);
+        double kmPerRadian = GeoUtils.EARTH_RADIUS_KM;
+
+        int[] candidates = context.getCandidates();
+        for (int c = 0; c < context.getCandidateCount(); c++) {
+            int i = candidates[c];
+            if (Double.isNaN(lat[i])) continue; // no coordinates: scores 0
+            double dLon = Math.abs(lon[i] - qLon);
+            if (dLon > Math.PI) dLon = 2 * Math.PI - dLon;
+            double x = dLon * cosLat;
+            double y = lat[i] - qLat;
+            double km = kmPerRadian * Math.sqrt(x * x + y * y);
+            totals[i] += weight * Math.exp(-km / scaleKm);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.boardinghouse.ranking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Log-scaled view count relative to the most viewed listing */
+@Component
+public class PopularitySignal implements RankingSignal {
+
+    @Value("${ranking.weights.popularity:0.5}")
+    private double weight;
+
+    @Override
+    public String getName() {
+        return "popularity";
+    }
+
+    @Override
+    public double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public boolean appliesTo(RankingQuery query) {
+        return true;
+    }
+
+    @Override
+    public void accumulate(RankingContext context, double weight, double[] totals) {
+        double[] popularity = context.getFeatures().getPopularity();
+        int[] candidates = context.getCandidates();
+        for (int c = 0; c < context.getCandidateCount(); c++) {
+            int i = candidates[c];
+            totals[i] += weight * popularity[i];
+        }
+    }
+}
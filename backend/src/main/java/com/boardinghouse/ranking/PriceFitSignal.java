@@ -0,0 +1,55 @@
+package com.boardinghouse.ranking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fit of the monthly price against the student's budget: 1 at or under budget,
+ * decaying as the price goes over it (about 0.37 at over-budget-tolerance above).
+ */
+@Component
+public class PriceFitSignal implements RankingSignal {
+
+    @Value("${ranking.weights.price:2}")
+    private double weight;
+
+    @Value("${ranking.price.over-budget-tolerance:0.15}")
+    private double overBudgetTolerance;
+
+    @Override
+    public String getName() {
+        return "price";
+    }
+
+    @Override
+    public double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public boolean appliesTo(RankingQuery query) {
+        return query.hasBudget();
+    }
+
+    @Override
+    public void accumulate(RankingContext context, double weight, double[] totals) {
+        double[] prices = context.getFeatures().getPrices();
+        double budget = context.getQuery().getBudget();
+        double scale = budget * overBudgetTolerance;
+
+        int[] candidates = context.getCandidates();
+        for (int c = 0; c < context.getCandidateCount(); c++) {
+            int i = candidates[c];
+            double price = prices[i];
+            double score;
+            if (Double.isNaN(price)) {
+                score = 0.5;
+            } else if (price <= budget) {
+                score = 1.0;
+            } else {
+                score = Math.exp(-(price - budget) / scale);
+            }
+            totals[i] += weight * score;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.boardinghouse.ranking;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One ranking request: the query, the feature snapshot it runs against, and the
+ * candidate positions being scored. textScores is null when the query has no text.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RankingContext {
+    private final RankingQuery query;
+    private final RankingFeatures features;
+    private final int[] candidates;
+    private final int candidateCount;
+    private final double[] textScores;
+}
@@ -0,0 +1,180 @@
+package com.boardinghouse.ranking;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable per-listing ranking features for every approved listing, laid out
+ * as parallel primitive arrays indexed by position (0 .. size-1) so signals can
+ * score the whole catalog in tight loops. Missing values are NaN (doubles) or
+ * Long.MIN_VALUE (timestamps).
+ */
+@Getter
+public final class RankingFeatures {
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float LOCATION_WEIGHT = 2f;
+    private static final float SCHOOLS_WEIGHT = 2f;
+    private static final float OTHER_WEIGHT = 1f;
+
+    private final int size;
+    private final long[] listingIds;
+    private final double[] latitudesRad;
+    private final double[] longitudesRad;
+    private final double[] prices;
+    /** Rating shrunk towards the catalog mean, 1..5; NaN when the catalog has no ratings */
+    private final double[] bayesianRatings;
+    private final long[] createdAtMillis;
+    /** log(1 + views) scaled to 0..1 by the most viewed listing */
+    private final double[] popularity;
+    /** log(1 + favorites) scaled to 0..1 by the most saved listing */
+    private final double[] saves;
+
+    /** token -> positions of listings containing it, and the summed field weight per position */
+    @Getter(AccessLevel.NONE)
+    private final Map<String, int[]> postings;
+    @Getter(AccessLevel.NONE)
+    private final Map<String, float[]> postingWeights;
+
+    private RankingFeatures(int size) {
+        this.size = size;
+        this.listingIds = new long[size];
+        this.latitudesRad = new double[size];
+        this.longitudesRad = new double[size];
+        this.prices = new double[size];
+        this.bayesianRatings = new double[size];
+        this.createdAtMillis = new long[size];
+        this.popularity = new double[size];
+        this.saves = new double[size];
+        this.postings = new HashMap<>();
+        this.postingWeights = new HashMap<>();
+    }
+
+    public static RankingFeatures empty() {
+        return new RankingFeatures(0);
+    }
+
+    /**
+     * @param ratingPriorWeight how many "average" reviews every listing is assumed to have
+     */
+    public static RankingFeatures build(List<RankingListing> listings, double ratingPriorWeight) {
+        int n = listings.size();
+        RankingFeatures f = new RankingFeatures(n);
+
+        double ratingSum = 0;
+        long ratingCount = 0;
+        int maxViews = 0;
+        int maxFavorites = 0;
+        for (RankingListing l : listings) {
+            int reviews = l.getReviews() != null ? l.getReviews() : 0;
+            if (reviews > 0 && l.getRating() != null) {
+                ratingSum += l.getRating() * reviews;
+                ratingCount += reviews;
+            }
+            maxViews = Math.max(maxViews, l.getViewCount() != null ? l.getViewCount() : 0);
+            maxFavorites = Math.max(maxFavorites, l.getFavoriteCount() != null ? l.getFavoriteCount() : 0);
+        }
+        double catalogMean = ratingCount > 0 ? ratingSum / ratingCount : Double.NaN;
+        double viewScale = Math.log1p(maxViews);
+        double favoriteScale = Math.log1p(maxFavorites);
+
+        Map<String, List<Integer>> rawPostings = new HashMap<>();
+        Map<String, List<Float>> rawWeights = new HashMap<>();
+
+        for (int i = 0; i < n; i++) {
+            RankingListing l = listings.get(i);
+            f.listingIds[i] = l.getId();
+            f.latitudesRad[i] = l.getLatitude() != null ? Math.toRadians(l.getLatitude()) : Double.NaN;
+            f.longitudesRad[i] = l.getLongitude() != null ? Math.toRadians(l.getLongitude()) : Double.NaN;
+            f.prices[i] = l.getPrice() != null ? l.getPrice() : Double.NaN;
+
+            int reviews = l.getReviews() != null ? l.getReviews() : 0;
+            double rating = reviews > 0 && l.getRating() != null ? l.getRating() : 0;
+            // Prefer the stored value, kept current by RatingService against the global prior
+            f.bayesianRatings[i] = l.getBayesianRating() != null
+                    ? l.getBayesianRating()
+                    : (ratingPriorWeight * catalogMean + rating * reviews) / (ratingPriorWeight + reviews);
+
+            f.createdAtMillis[i] = l.getCreatedAt() != null
+                    ? l.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : Long.MIN_VALUE;
+            int views = l.getViewCount() != null ? l.getViewCount() : 0;
+            f.popularity[i] = viewScale > 0 ? Math.log1p(views) / viewScale : 0;
+            int favorites = l.getFavoriteCount() != null ? l.getFavoriteCount() : 0;
+            f.saves[i] = favoriteScale > 0 ? Math.log1p(favorites) / favoriteScale : 0;
+
+            Map<String, Float> weights = new HashMap<>();
+            addTokens(weights, l.getTitle(), TITLE_WEIGHT);
+            addTokens(weights, l.getLocation(), LOCATION_WEIGHT);
+            addTokens(weights, l.getNearbySchools(), SCHOOLS_WEIGHT);
+            addTokens(weights, l.getRoomType(), OTHER_WEIGHT);
+            addTokens(weights, l.getDescription(), OTHER_WEIGHT);
+            final int position = i;
+            weights.forEach((token, weight) -> {
+                rawPostings.computeIfAbsent(token, k -> new ArrayList<>()).add(position);
+                rawWeights.computeIfAbsent(token, k -> new ArrayList<>()).add(weight);
+            });
+        }
+
+        rawPostings.forEach((token, positions) -> {
+            List<Float> weights = rawWeights.get(token);
+            int[] p = new int[positions.size()];
+            float[] w = new float[positions.size()];
+            for (int j = 0; j < p.length; j++) {
+                p[j] = positions.get(j);
+                w[j] = weights.get(j);
+            }
+            f.postings.put(token, p);
+            f.postingWeights.put(token, w);
+        });
+        return f;
+    }
+
+    /**
+     * Text relevance in 0..1 for every position: each query token contributes its
+     * IDF, scaled by how strongly it appears (a title hit counts fully). Positions
+     * matching no token score 0.
+     */
+    public double[] textScores(List<String> tokens) {
+        double[] scores = new double[size];
+        double idfTotal = 0;
+        for (String token : tokens) {
+            int[] positions = postings.get(token);
+            // Unknown tokens still count in the denominator so partial matches rank lower
+            double idf = Math.log(1 + (double) size / (positions != null ? positions.length : 1));
+            idfTotal += idf;
+            if (positions == null) continue;
+            float[] weights = postingWeights.get(token);
+            for (int j = 0; j < positions.length; j++) {
+                scores[positions[j]] += idf * Math.min(1.0, weights[j] / TITLE_WEIGHT);
+            }
+        }
+        if (idfTotal > 0) {
+            for (int i = 0; i < size; i++) scores[i] /= idfTotal;
+        }
+        return scores;
+    }
+
+    /** Lower-cased alphanumeric tokens, deduplicated, in first-seen order */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static void addTokens(Map<String, Float> weights, String text, float weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+}
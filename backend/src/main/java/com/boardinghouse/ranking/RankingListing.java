@@ -0,0 +1,40 @@
+package com.boardinghouse.ranking;
+
+import java.time.LocalDateTime;
+
+/**
+ * The Listing columns RankingFeatures reads, loaded as a projection so a rebuild
+ * doesn't pull images, amenities or the landlord for the whole catalog.
+ */
+public interface RankingListing {
+
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getLocation();
+
+    String getNearbySchools();
+
+    String getRoomType();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    Double getPrice();
+
+    Double getRating();
+
+    Integer getReviews();
+
+    Double getBayesianRating();
+
+    Integer getViewCount();
+
+    Integer getFavoriteCount();
+
+    LocalDateTime getCreatedAt();
+}
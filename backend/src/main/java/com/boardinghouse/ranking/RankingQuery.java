@@ -0,0 +1,27 @@
+package com.boardinghouse.ranking;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/** What a student is looking for; every field is optional */
+@Getter
+@Builder
+public class RankingQuery {
+    private final String text;
+    private final Double latitude;
+    private final Double longitude;
+    private final Integer budget;
+    private final long nowMillis;
+
+    public boolean hasText() {
+        return text != null && !text.isBlank();
+    }
+
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+
+    public boolean hasBudget() {
+        return budget != null && budget > 0;
+    }
+}
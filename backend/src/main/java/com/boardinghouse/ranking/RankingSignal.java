@@ -0,0 +1,23 @@
+package com.boardinghouse.ranking;
+
+/**
+ * One ingredient of the listing score. Every RankingSignal bean is picked up by
+ * ListingRankingService; the final score is the weighted sum of the signals that
+ * apply to the query (weights are not normalised, so only their ratios matter
+ * for ordering).
+ *
+ * Signals score column-wise: accumulate() adds weight * score for each candidate
+ * into totals, where score is in 0..1. Missing data should score neutrally (0.5)
+ * or low rather than throw.
+ */
+public interface RankingSignal {
+
+    String getName();
+
+    double getWeight();
+
+    /** False when the query doesn't carry what this signal needs (e.g. no location) */
+    boolean appliesTo(RankingQuery query);
+
+    void accumulate(RankingContext context, double weight, double[] totals);
+}
@@ -0,0 +1,38 @@
+package com.boardinghouse.ranking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Bayesian-averaged rating, so one 5-star review doesn't beat fifty 4.6s */
+@Component
+public class RatingSignal implements RankingSignal {
+
+    @Value("${ranking.weights.rating:1.5}")
+    private double weight;
+
+    @Override
+    public String getName() {
+        return "rating";
+    }
+
+    @Override
+    public double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public boolean appliesTo(RankingQuery query) {
+        return true;
+    }
+
+    @Override
+    public void accumulate(RankingContext context, double weight, double[] totals) {
+        double[] ratings = context.getFeatures().getBayesianRatings();
+        int[] candidates = context.getCandidates();
+        for (int c = 0; c < context.getCandidateCount(); c++) {
+            int i = candidates[c];
+            double score = Double.isNaN(ratings[i]) ? 0.5 : (ratings[i] - 1) / 4;
+            totals[i] += weight * score;
+        }
+    }
+}
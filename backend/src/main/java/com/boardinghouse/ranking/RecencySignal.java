@@ -0,0 +1,47 @@
+package com.boardinghouse.ranking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Newer listings first: halves every half-life-days; unknown age scores 0 */
+@Component
+public class RecencySignal implements RankingSignal {
+
+    private static final double MILLIS_PER_DAY = 86_400_000.0;
+
+    @Value("${ranking.weights.recency:0.5}")
+    private double weight;
+
+    @Value("${ranking.recency.half-life-days:30}")
+    private double halfLifeDays;
+
+    @Override
+    public String getName() {
+        return "recency";
+    }
+
+    @Override
+    public double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public boolean appliesTo(RankingQuery query) {
+        return true;
+    }
+
+    @Override
+    public void accumulate(RankingContext context, double weight, double[] totals) {
+        long[] created = context.getFeatures().getCreatedAtMillis();
+        long now = context.getQuery().getNowMillis();
+        double decayPerMilli = Math.log(2) / (halfLifeDays * MILLIS_PER_DAY);
+
+        int[] candidates = context.getCandidates();
+        for (int c = 0; c < context.getCandidateCount(); c++) {
+            int i = candidates[c];
+            if (created[i] == Long.MIN_VALUE) continue;
+            long age = Math.max(0, now - created[i]);
+            totals[i] += weight * Math.exp(-age * decayPerMilli);
+        }
+    }
+}
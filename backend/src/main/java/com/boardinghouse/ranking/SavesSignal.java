@@ -0,0 +1,37 @@
+package com.boardinghouse.ranking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Log-scaled favorite count relative to the most saved listing */
+@Component
+public class SavesSignal implements RankingSignal {
+
+    @Value("${ranking.weights.saves:0.5}")
+    private double weight;
+
+    @Override
+    public String getName() {
+        return "saves";
+    }
+
+    @Override
+    public double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public boolean appliesTo(RankingQuery query) {
+        return true;
+    }
+
+    @Override
+    public void accumulate(RankingContext context, double weight, double[] totals) {
+        double[] saves = context.getFeatures().getSaves();
+        int[] candidates = context.getCandidates();
+        for (int c = 0; c < context.getCandidateCount(); c++) {
+            int i = candidates[c];
+            totals[i] += weight * saves[i];
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.boardinghouse.ranking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** How well the title, location, schools and description match the search text */
+@Component
+public class TextRelevanceSignal implements RankingSignal {
+
+    @Value("${ranking.weights.text:3}")
+    private double weight;
+
+    @Override
+    public String getName() {
+        return "text";
+    }
+
+    @Override
+    public double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public boolean appliesTo(RankingQuery query) {
+        return query.hasText();
+    }
+
+    @Override
+    public void accumulate(RankingContext context, double weight, double[] totals) {
+        double[] text = context.getTextScores();
+        int[] candidates = context.getCandidates();
+        for (int c = 0; c < context.getCandidateCount(); c++) {
+            int i = candidates[c];
+            totals[i] += weight * text[i];
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.boardinghouse.repository;
+
+import com.boardinghouse.entity.Listing;
+import com.boardinghouse.util.KeysetCursor;
+
+/** A favorite with its listing card fields, as read by FavoriteRepository.findCardsByUserId */
+public interface FavoriteCardRow extends KeysetCursor.Keyed {
+
+    Long getListingId();
+
+    String getTitle();
+
+    String getImage();
+
+    String getLocation();
+
+    Double getPrice();
+
+    String getRoomType();
+
+    Double getRating();
+
+    Integer getReviews();
+
+    Boolean getAvailable();
+
+    Listing.ListingStatus getStatus();
+
+    Integer getFavoriteCount();
+}
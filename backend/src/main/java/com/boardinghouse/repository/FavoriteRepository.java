@@ -1,9 +1,15 @@
 package com.boardinghouse.repository;
 
 import com.boardinghouse.entity.Favorite;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +21,57 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     Optional<Favorite> findByUser_IdAndListing_Id(Long userId, Long listingId);
     
     boolean existsByUser_IdAndListing_Id(Long userId, Long listingId);
-    
-    void deleteByUser_IdAndListing_Id(Long userId, Long listingId);
+
+    /**
+     * Adds the favorite in one statement if the listing exists and it isn't already
+     * saved; returns rows inserted. Two racing inserts can still both pass NOT EXISTS,
+     * in which case the unique constraint rejects the second.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO favorites (user_id, listing_id, created_at) " +
+                   "SELECT :userId, l.id, :createdAt FROM listings l WHERE l.id = :listingId " +
+                   "AND NOT EXISTS (SELECT 1 FROM favorites f WHERE f.user_id = :userId AND f.listing_id = :listingId)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("listingId") Long listingId,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    /** Returns rows deleted */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Favorite f WHERE f.user.id = :userId AND f.listing.id = :listingId")
+    int deleteFavorite(@Param("userId") Long userId, @Param("listingId") Long listingId);
+
+    /** The student's favorites with their listing cards, newest first, in one statement */
+    @Query("SELECT f.id AS id, f.createdAt AS createdAt, l.id AS listingId, l.title AS title, l.image AS image, " +
+           "l.location AS location, l.price AS price, l.roomType AS roomType, l.rating AS rating, " +
+           "l.reviews AS reviews, l.available AS available, l.status AS status, l.favoriteCount AS favoriteCount " +
+           "FROM Favorite f JOIN f.listing l WHERE f.user.id = :userId " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FavoriteCardRow> findCardsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /** As findCardsByUserId, for the rows after the (createdAt, id) cursor */
+    @Query("SELECT f.id AS id, f.createdAt AS createdAt, l.id AS listingId, l.title AS title, l.image AS image, " +
+           "l.location AS location, l.price AS price, l.roomType AS roomType, l.rating AS rating, " +
+           "l.reviews AS reviews, l.available AS available, l.status AS status, l.favoriteCount AS favoriteCount " +
+           "FROM Favorite f JOIN f.listing l WHERE f.user.id = :userId " +
+           "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FavoriteCardRow> findCardsByUserIdAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT f.listing.id FROM Favorite f WHERE f.user.id = :userId")
+    List<Long> findListingIdsByUserId(@Param("userId") Long userId);
+
+    /** Rows of [userId, listingId] for every favorite */
+    @Query("SELECT f.user.id, f.listing.id FROM Favorite f")
+    List<Object[]> findAllUserListingPairs();
+
+    /** Order-independent checksum of all [userId, listingId] pairs; see SimilarListingService.pairChecksum */
+    @Query("SELECT COALESCE(SUM(MOD(f.user.id * 1000003 + f.listing.id, 2147483647)), 0) FROM Favorite f")
+    long checksumUserListingPairs();
+
+    /** Rows of [listingId, createdAt] for favorites added since the given time */
+    @Query("SELECT f.listing.id, f.createdAt FROM Favorite f WHERE f.createdAt >= :since")
+    List<Object[]> findListingTimesSince(@Param("since") LocalDateTime since);
 }
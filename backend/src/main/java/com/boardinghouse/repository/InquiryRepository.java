@@ -2,11 +2,18 @@ package com.boardinghouse.repository;
 
 import com.boardinghouse.entity.Inquiry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface InquiryRepository extends JpaRepository<Inquiry, Long> {
     List<Inquiry> findByLandlord_IdOrderByCreatedAtDesc(Long landlordId);
     List<Inquiry> findByStudent_IdOrderByCreatedAtDesc(Long studentId);
     List<Inquiry> findByListing_IdOrderByCreatedAtDesc(Long listingId);
+
+    /** Rows of [listingId, createdAt] for inquiries sent since the given time */
+    @Query("SELECT i.listing.id, i.createdAt FROM Inquiry i WHERE i.createdAt >= :since")
+    List<Object[]> findListingTimesSince(@Param("since") LocalDateTime since);
 }
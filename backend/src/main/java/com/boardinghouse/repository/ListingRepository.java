@@ -1,13 +1,117 @@
 package com.boardinghouse.repository;
 
 import com.boardinghouse.entity.Listing;
+import com.boardinghouse.ranking.RankingListing;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ListingRepository extends JpaRepository<Listing, Long> {
     List<Listing> findByLocationContainingIgnoreCase(String location);
     List<Listing> findByLandlord_Id(Long landlordId);
     List<Listing> findByStatus(Listing.ListingStatus status);
     List<Listing> findByStatusAndLocationContainingIgnoreCase(Listing.ListingStatus status, String location);
+
+    /** Rows of [id, latitude, longitude] for listings with coordinates, without loading the entities */
+    @Query("SELECT l.id, l.latitude, l.longitude FROM Listing l " +
+           "WHERE l.status = :status AND l.latitude IS NOT NULL AND l.longitude IS NOT NULL")
+    List<Object[]> findCoordinatesByStatus(@Param("status") Listing.ListingStatus status);
+
+    @Query("SELECT l.id AS id, l.title AS title, l.description AS description, l.location AS location, " +
+           "l.nearbySchools AS nearbySchools, l.roomType AS roomType, l.latitude AS latitude, " +
+           "l.longitude AS longitude, l.price AS price, l.rating AS rating, l.reviews AS reviews, " +
+           "l.bayesianRating AS bayesianRating, l.viewCount AS viewCount, l.favoriteCount AS favoriteCount, " +
+           "l.createdAt AS createdAt FROM Listing l WHERE l.status = :status")
+    List<RankingListing> findRankingListingsByStatus(@Param("status") Listing.ListingStatus status);
+
+    @Query("SELECT COALESCE(SUM(l.viewCount), 0) FROM Listing l WHERE l.landlord.id = :landlordId")
+    long sumViewCountByLandlordId(@Param("landlordId") Long landlordId);
+
+    @Modifying
+    @Query(value = "UPDATE listings SET view_count = COALESCE(view_count, 0) + 1 WHERE id = :id", nativeQuery = true)
+    int incrementViewCount(@Param("id") Long id);
+
+    @Query("SELECT l.viewCount FROM Listing l WHERE l.id = :id")
+    Integer findViewCountById(@Param("id") Long id);
+
+    @Query("SELECT l.landlord.id FROM Listing l WHERE l.id = :id")
+    Optional<Long> findLandlordIdById(@Param("id") Long id);
+
+    @Query("SELECT l.id FROM Listing l WHERE l.landlord.id = :landlordId")
+    List<Long> findIdsByLandlordId(@Param("landlordId") Long landlordId);
+
+    @Query("SELECT l.id AS id, l.title AS title, l.viewCount AS viewCount FROM Listing l " +
+           "WHERE l.landlord.id = :landlordId")
+    List<ListingViewCountRow> findViewCountsByLandlordId(@Param("landlordId") Long landlordId);
+
+    /** Listings with their landlords joined in, so building responses doesn't fetch each landlord */
+    @Query("SELECT l FROM Listing l LEFT JOIN FETCH l.landlord WHERE l.id IN :ids")
+    List<Listing> findAllWithLandlordByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Locks the row so concurrent rating updates don't lose histogram increments */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Listing l WHERE l.id = :id")
+    Optional<Listing> findByIdForUpdate(@Param("id") Long id);
+
+    /** Served by idx_listing_status_bayesian_rating */
+    List<Listing> findByStatusAndBayesianRatingNotNullOrderByBayesianRatingDesc(Listing.ListingStatus status,
+                                                                                Pageable pageable);
+
+    List<Listing> findByStars1IsNull();
+
+    @Modifying
+    @Query(value = "UPDATE listings SET favorite_count = COALESCE(favorite_count, 0) + :delta WHERE id = :id",
+           nativeQuery = true)
+    int addFavoriteCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /** Ids of listings whose favorite_count differs from the favorites table */
+    @Query(value = "SELECT l.id FROM listings l WHERE l.favorite_count IS NULL OR l.favorite_count <> " +
+                   "(SELECT COUNT(*) FROM favorites f WHERE f.listing_id = l.id)",
+           nativeQuery = true)
+    List<Long> findFavoriteCountDrift();
+
+    /** Sets favorite_count from the favorites table for the given listings; returns rows changed */
+    @Modifying
+    @Query(value = "UPDATE listings SET favorite_count = " +
+                   "(SELECT COUNT(*) FROM favorites f WHERE f.listing_id = listings.id) " +
+                   "WHERE id IN (:ids)",
+           nativeQuery = true)
+    int recountFavoriteCounts(@Param("ids") Collection<Long> ids);
+
+    /** Writes a listing's rating aggregates, which entity saves leave alone */
+    @Modifying
+    @Query(value = "UPDATE listings SET stars1 = :stars1, stars2 = :stars2, stars3 = :stars3, stars4 = :stars4, " +
+                   "stars5 = :stars5, rating = :rating, reviews = :reviews, bayesian_rating = :bayesianRating " +
+                   "WHERE id = :id",
+           nativeQuery = true)
+    int updateRatingStats(@Param("id") Long id, @Param("stars1") int stars1, @Param("stars2") int stars2,
+                          @Param("stars3") int stars3, @Param("stars4") int stars4, @Param("stars5") int stars5,
+                          @Param("rating") double rating, @Param("reviews") int reviews,
+                          @Param("bayesianRating") double bayesianRating);
+
+    /** Sets the star histogram alone; used to backfill listings from before it existed */
+    @Modifying
+    @Query(value = "UPDATE listings SET stars1 = :stars1, stars2 = :stars2, stars3 = :stars3, stars4 = :stars4, " +
+                   "stars5 = :stars5 WHERE id = :id",
+           nativeQuery = true)
+    int updateStarHistogram(@Param("id") Long id, @Param("stars1") int stars1, @Param("stars2") int stars2,
+                            @Param("stars3") int stars3, @Param("stars4") int stars4, @Param("stars5") int stars5);
+
+    /** Recomputes every stored Bayesian rating from the star histogram and the given prior */
+    @Modifying
+    @Query(value = "UPDATE listings SET bayesian_rating = " +
+           "(:priorWeight * :priorMean + COALESCE(stars1, 0) + 2 * COALESCE(stars2, 0) + 3 * COALESCE(stars3, 0)" +
+           " + 4 * COALESCE(stars4, 0) + 5 * COALESCE(stars5, 0))" +
+           " / (:priorWeight + COALESCE(stars1, 0) + COALESCE(stars2, 0) + COALESCE(stars3, 0)" +
+           " + COALESCE(stars4, 0) + COALESCE(stars5, 0))",
+           nativeQuery = true)
+    int updateBayesianRatings(@Param("priorMean") double priorMean, @Param("priorWeight") double priorWeight);
 }
@@ -0,0 +1,11 @@
+package com.boardinghouse.repository;
+
+/** A landlord's listing with its raw view count, as read by ListingRepository.findViewCountsByLandlordId */
+public interface ListingViewCountRow {
+
+    Long getId();
+
+    String getTitle();
+
+    Integer getViewCount();
+}
@@ -0,0 +1,48 @@
+package com.boardinghouse.repository;
+
+import com.boardinghouse.entity.ListingViewRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ListingViewRollupRepository extends JpaRepository<ListingViewRollup, Long> {
+
+    List<ListingViewRollup> findByGranularityAndBucketStartInAndListingIdIn(
+            ListingViewRollup.Granularity granularity,
+            Collection<LocalDateTime> bucketStarts,
+            Collection<Long> listingIds);
+
+    List<ListingViewRollup> findByGranularityAndBucketStartBefore(
+            ListingViewRollup.Granularity granularity, LocalDateTime before);
+
+    @Query("SELECT r FROM ListingViewRollup r WHERE r.landlordId = :landlordId " +
+           "AND r.granularity IN :granularities AND r.bucketStart >= :from AND r.bucketStart < :to")
+    List<ListingViewRollup> findForLandlord(@Param("landlordId") Long landlordId,
+                                            @Param("granularities") Collection<ListingViewRollup.Granularity> granularities,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    @Query("SELECT r FROM ListingViewRollup r WHERE r.listingId = :listingId " +
+           "AND r.granularity IN :granularities AND r.bucketStart >= :from AND r.bucketStart < :to")
+    List<ListingViewRollup> findForListing(@Param("listingId") Long listingId,
+                                           @Param("granularities") Collection<ListingViewRollup.Granularity> granularities,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    List<ListingViewRollup> findByGranularityAndBucketStartGreaterThanEqual(
+            ListingViewRollup.Granularity granularity, LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM ListingViewRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteByGranularityBefore(@Param("granularity") ListingViewRollup.Granularity granularity,
+                                  @Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM ListingViewRollup r WHERE r.listingId = :listingId")
+    int deleteByListingId(@Param("listingId") Long listingId);
+}
@@ -0,0 +1,7 @@
+package com.boardinghouse.repository;
+
+import com.boardinghouse.entity.ListingViewerSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ListingViewerSketchRepository extends JpaRepository<ListingViewerSketch, Long> {
+}
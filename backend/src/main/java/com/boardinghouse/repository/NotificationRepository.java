@@ -0,0 +1,27 @@
+package com.boardinghouse.repository;
+
+import com.boardinghouse.entity.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    List<Notification> findByUser_IdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+    List<Notification> findByUser_IdAndReadFalseOrderByCreatedAtDesc(Long userId, Pageable pageable);
+    Optional<Notification> findByIdAndUser_Id(Long id, Long userId);
+    long countByUser_IdAndReadFalse(Long userId);
+
+    /** Users among userIds already notified about this listing, so re-approvals don't notify twice */
+    @Query("SELECT n.user.id FROM Notification n WHERE n.listing.id = :listingId AND n.user.id IN :userIds")
+    List<Long> findNotifiedUserIds(@Param("listingId") Long listingId, @Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.read = false")
+    int markAllRead(@Param("userId") Long userId);
+}
@@ -1,11 +1,14 @@
 package com.boardinghouse.repository;
 
 import com.boardinghouse.entity.Rating;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,4 +26,46 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     Integer getReviewCountByListingId(@Param("listingId") Long listingId);
     
     boolean existsByUser_IdAndListing_Id(Long userId, Long listingId);
+
+    /** Rows of [listingId, stars] for everything the user has rated */
+    @Query("SELECT r.listing.id, r.rating FROM Rating r WHERE r.user.id = :userId")
+    List<Object[]> findListingRatingsByUserId(@Param("userId") Long userId);
+
+    /** Rows of [userId, listingId] for ratings of at least minStars */
+    @Query("SELECT r.user.id, r.listing.id FROM Rating r WHERE r.rating >= :minStars")
+    List<Object[]> findUserListingPairsWithRatingAtLeast(@Param("minStars") int minStars);
+
+    long countByRatingGreaterThanEqual(Integer minStars);
+
+    /** Order-independent checksum of [userId, listingId] for ratings of at least minStars; see SimilarListingService.pairChecksum */
+    @Query("SELECT COALESCE(SUM(MOD(r.user.id * 1000003 + r.listing.id, 2147483647)), 0) FROM Rating r " +
+           "WHERE r.rating >= :minStars")
+    long checksumUserListingPairsWithRatingAtLeast(@Param("minStars") int minStars);
+
+    /** The listing's ratings, newest first, with the author joined in the same statement */
+    @Query("SELECT r.id AS id, r.rating AS stars, SUBSTRING(r.review, 1, :maxLength) AS review, " +
+           "LENGTH(r.review) AS reviewLength, r.createdAt AS createdAt, r.updatedAt AS updatedAt, " +
+           "u.id AS userId, u.name AS userName FROM Rating r JOIN r.user u WHERE r.listing.id = :listingId " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RatingRow> findRowsByListingId(@Param("listingId") Long listingId, @Param("maxLength") int maxLength,
+                                        Pageable pageable);
+
+    /** As findRowsByListingId, for the rows after the (createdAt, id) cursor */
+    @Query("SELECT r.id AS id, r.rating AS stars, SUBSTRING(r.review, 1, :maxLength) AS review, " +
+           "LENGTH(r.review) AS reviewLength, r.createdAt AS createdAt, r.updatedAt AS updatedAt, " +
+           "u.id AS userId, u.name AS userName FROM Rating r JOIN r.user u WHERE r.listing.id = :listingId " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RatingRow> findRowsByListingIdAfter(@Param("listingId") Long listingId, @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id, @Param("maxLength") int maxLength, Pageable pageable);
+
+    Optional<Rating> findByIdAndListing_Id(Long id, Long listingId);
+
+    /** Rows of [listingId, stars, count]: the star histogram of each listing */
+    @Query("SELECT r.listing.id, r.rating, COUNT(r) FROM Rating r WHERE r.listing.id IN :listingIds " +
+           "GROUP BY r.listing.id, r.rating")
+    List<Object[]> countStarsByListingIds(@Param("listingIds") Collection<Long> listingIds);
+
+    @Query("SELECT AVG(r.rating) FROM Rating r")
+    Double getGlobalAverageRating();
 }
@@ -0,0 +1,22 @@
+package com.boardinghouse.repository;
+
+import com.boardinghouse.util.KeysetCursor;
+
+import java.time.LocalDateTime;
+
+/** A rating with its author, as read by RatingRepository.findRowsByListingId */
+public interface RatingRow extends KeysetCursor.Keyed {
+
+    Integer getStars();
+
+    /** The first maxLength characters of the review */
+    String getReview();
+
+    Integer getReviewLength();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getUserId();
+
+    String getUserName();
+}
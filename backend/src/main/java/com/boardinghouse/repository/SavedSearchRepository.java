@@ -0,0 +1,18 @@
+package com.boardinghouse.repository;
+
+import com.boardinghouse.entity.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+    List<SavedSearch> findByStudent_IdOrderByCreatedAtDesc(Long studentId);
+    Optional<SavedSearch> findByIdAndStudent_Id(Long id, Long studentId);
+    long countByStudent_Id(Long studentId);
+
+    /** Every saved search with notifications on, with the owner's id fetched */
+    @Query("SELECT s FROM SavedSearch s JOIN FETCH s.student WHERE s.notify = true")
+    List<SavedSearch> findAllWithNotifyEnabled();
+}
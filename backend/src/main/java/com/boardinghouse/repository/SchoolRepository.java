@@ -0,0 +1,11 @@
+package com.boardinghouse.repository;
+
+import com.boardinghouse.entity.School;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface SchoolRepository extends JpaRepository<School, Long> {
+    boolean existsByNameIgnoreCase(String name);
+    List<School> findAllByOrderByNameAsc();
+}
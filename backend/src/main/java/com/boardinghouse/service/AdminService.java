@@ -1,13 +1,16 @@
 package com.boardinghouse.service;
 
+import com.boardinghouse.dto.DuplicateListingResponse;
 import com.boardinghouse.dto.ListingResponse;
 import com.boardinghouse.dto.UserResponse;
 import com.boardinghouse.dto.UserUpdateRequest;
 import com.boardinghouse.entity.Listing;
 import com.boardinghouse.entity.User;
+import com.boardinghouse.event.ListingChangedEvent;
 import com.boardinghouse.repository.ListingRepository;
 import com.boardinghouse.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -20,6 +23,8 @@ public class AdminService {
     private final UserRepository userRepository;
     private final ListingRepository listingRepository;
     private final ListingService listingService;
+    private final DuplicateListingService duplicateListingService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all users except admins
@@ -85,6 +90,29 @@ public class AdminService {
         userRepository.delete(user);
     }
 
+    /**
+     * Get all listings, flagging pending ones that look like copies of another listing
+     */
+    public List<ListingResponse> getAllListings() {
+        List<ListingResponse> responses = listingService.toResponseList(listingService.getAll());
+        for (ListingResponse response : responses) {
+            if (Listing.ListingStatus.PENDING.name().equals(response.getStatus())) {
+                response.setPossibleDuplicateIds(duplicateListingService.findDuplicateIds(response.getId()));
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Listings that are probably duplicates of the given one
+     */
+    public List<DuplicateListingResponse> getPossibleDuplicates(Long id) {
+        if (!listingRepository.existsById(id)) {
+            throw new RuntimeException("Listing not found with id: " + id);
+        }
+        return duplicateListingService.findDuplicates(id);
+    }
+
     /**
      * Approve a listing
      */
@@ -96,6 +124,7 @@ public class AdminService {
         listing.setAvailable(true);
         listing.setRejectionNotes(null); // Clear any previous rejection notes
         Listing saved = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(saved.getId(), ListingChangedEvent.Type.APPROVED, saved));
         return listingService.toResponse(saved);
     }
 
@@ -110,6 +139,7 @@ public class AdminService {
         listing.setAvailable(false);
         listing.setRejectionNotes(rejectionNotes);
         Listing saved = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(saved.getId(), ListingChangedEvent.Type.REJECTED, saved));
         return listingService.toResponse(saved);
     }
 
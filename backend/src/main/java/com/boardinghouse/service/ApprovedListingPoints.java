@@ -0,0 +1,164 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.entity.Listing;
+import com.boardinghouse.event.ListingChangedEvent;
+import com.boardinghouse.repository.ListingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * The one in-memory copy of approved listings' coordinates, shared by the spatial
+ * indexes (clusters, nearest, schools) and the recommendation catalog.
+ *
+ * Listing events update the point set immediately. Subscribers are then told in
+ * two ways: change subscribers get each listing as it changes (null when it is no
+ * longer approved), and snapshot subscribers get an immutable Snapshot rebuilt at
+ * most once per listings.points.rebuild-interval, for indexes that are cheaper to
+ * rebuild than to patch.
+ */
+@Service
+@Slf4j
+public class ApprovedListingPoints {
+
+    private final ListingRepository listingRepository;
+
+    /** listingId -> {latitude, longitude} of every approved listing with coordinates */
+    private final Map<Long, double[]> points = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final List<Consumer<Snapshot>> snapshotSubscribers = new CopyOnWriteArrayList<>();
+    private final List<BiConsumer<Long, Listing>> changeSubscribers = new CopyOnWriteArrayList<>();
+    private final List<Runnable> loadedCallbacks = new ArrayList<>();
+    private boolean loaded;
+
+    private volatile Snapshot snapshot = new Snapshot(new long[0], new double[0], new double[0]);
+
+    /** Parallel arrays, one entry per approved listing with coordinates */
+    public record Snapshot(long[] listingIds, double[] latitudes, double[] longitudes) {
+        public int size() {
+            return listingIds.length;
+        }
+    }
+
+    public ApprovedListingPoints(ListingRepository listingRepository) {
+        this.listingRepository = listingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (Object[] row : listingRepository.findCoordinatesByStatus(Listing.ListingStatus.APPROVED)) {
+            points.put((Long) row[0], new double[]{(Double) row[1], (Double) row[2]});
+        }
+        rebuild();
+        List<Runnable> callbacks;
+        synchronized (loadedCallbacks) {
+            loaded = true;
+            callbacks = new ArrayList<>(loadedCallbacks);
+            loadedCallbacks.clear();
+        }
+        callbacks.forEach(Runnable::run);
+    }
+
+    /** Runs once the initial points are loaded: straight away if they already are */
+    public void whenLoaded(Runnable callback) {
+        synchronized (loadedCallbacks) {
+            if (!loaded) {
+                loadedCallbacks.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    /** Called with the current snapshot straight away, then after every rebuild */
+    public void subscribeSnapshots(Consumer<Snapshot> subscriber) {
+        snapshotSubscribers.add(subscriber);
+        subscriber.accept(snapshot);
+    }
+
+    /** Called for every listing change: the listing, or null once it is no longer approved */
+    public void subscribeChanges(BiConsumer<Long, Listing> subscriber) {
+        changeSubscribers.add(subscriber);
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * A snapshot of the live point set, including changes the published snapshot
+     * doesn't have yet. Costs a copy; meant for one-off (re)indexing, not queries.
+     */
+    public Snapshot getLiveSnapshot() {
+        return toSnapshot(new ArrayList<>(points.entrySet()));
+    }
+
+    /** Live membership, ahead of the next snapshot: false as soon as a listing is removed */
+    public boolean contains(long listingId) {
+        return points.containsKey(listingId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.getType() == ListingChangedEvent.Type.RATED) {
+            // Ratings move no points; RATED consumers listen for it themselves
+            return;
+        }
+        Listing listing = event.isVisible() ? event.getListing() : null;
+        if (listing != null && listing.getLatitude() != null && listing.getLongitude() != null) {
+            points.put(event.getListingId(), new double[]{listing.getLatitude(), listing.getLongitude()});
+        } else {
+            points.remove(event.getListingId());
+        }
+        dirty.set(true);
+        for (BiConsumer<Long, Listing> subscriber : changeSubscribers) {
+            subscriber.accept(event.getListingId(), listing);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${listings.points.rebuild-interval:2000}")
+    public void rebuildIfDirty() {
+        if (dirty.compareAndSet(true, false)) {
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        Snapshot next = toSnapshot(new ArrayList<>(points.entrySet()));
+        snapshot = next;
+        for (Consumer<Snapshot> subscriber : snapshotSubscribers) {
+            try {
+                subscriber.accept(next);
+            } catch (RuntimeException e) {
+                log.error("Listing point subscriber failed", e);
+            }
+        }
+        log.debug("Published approved listing points snapshot with {} points", next.size());
+    }
+
+    private static Snapshot toSnapshot(List<Map.Entry<Long, double[]>> entries) {
+        int n = entries.size();
+        long[] listingIds = new long[n];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            Map.Entry<Long, double[]> entry = entries.get(i);
+            listingIds[i] = entry.getKey();
+            latitudes[i] = entry.getValue()[0];
+            longitudes[i] = entry.getValue()[1];
+        }
+        return new Snapshot(listingIds, latitudes, longitudes);
+    }
+}
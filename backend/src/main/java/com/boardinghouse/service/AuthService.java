@@ -2,12 +2,14 @@ package com.boardinghouse.service;
 
 import com.boardinghouse.dto.AuthResponse;
 import com.boardinghouse.dto.LoginRequest;
+import com.boardinghouse.dto.RefreshTokenRequest;
 import com.boardinghouse.dto.RegisterRequest;
 import com.boardinghouse.entity.User;
 import com.boardinghouse.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,9 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginAttemptService loginAttemptService;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -57,9 +62,11 @@ public class AuthService {
 
         // Generate JWT token
         String jwtToken = jwtService.generateToken(user);
+        String refreshToken = refreshTokenService.issue(user);
 
         return AuthResponse.builder()
                 .token(jwtToken)
+                .refreshToken(refreshToken)
                 .type("Bearer")
                 .id(user.getId())
                 .name(user.getName())
@@ -69,16 +76,25 @@ public class AuthService {
                 .build();
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientIp) {
         log.info("User login attempt: {}", request.getEmail());
 
+        // Reject locked-out emails/IPs before any DB lookup or BCrypt work
+        loginAttemptService.checkAllowed(request.getEmail(), clientIp);
+
         // Authenticate user
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
+        try {
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmail(),
+                            request.getPassword()
+                    )
+            );
+        } catch (BadCredentialsException e) {
+            loginAttemptService.recordFailure(request.getEmail(), clientIp);
+            throw e;
+        }
+        loginAttemptService.recordSuccess(request.getEmail());
 
         // Get user from database
         User user = userRepository.findByEmail(request.getEmail())
@@ -90,11 +106,13 @@ public class AuthService {
 
         // Generate JWT token
         String jwtToken = jwtService.generateToken(user);
+        String refreshToken = refreshTokenService.issue(user);
 
         log.info("User logged in successfully: {}", user.getEmail());
 
         return AuthResponse.builder()
                 .token(jwtToken)
+                .refreshToken(refreshToken)
                 .type("Bearer")
                 .id(user.getId())
                 .name(user.getName())
@@ -103,4 +121,40 @@ public class AuthService {
                 .message("Login successful")
                 .build();
     }
+
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken())
+                .orElseThrow(() -> new RuntimeException("Invalid or expired refresh token"));
+
+        User user = rotation.user();
+        String jwtToken = jwtService.generateToken(user);
+
+        return AuthResponse.builder()
+                .token(jwtToken)
+                .refreshToken(rotation.refreshToken())
+                .type("Bearer")
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .message("Token refreshed")
+                .build();
+    }
+
+    /**
+     * Revoke the presented access token and the refresh token family.
+     * Either may be null; invalid or already-expired tokens are ignored.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            try {
+                tokenRevocationService.revoke(
+                        jwtService.extractTokenId(accessToken),
+                        jwtService.extractExpiration(accessToken));
+            } catch (Exception e) {
+                log.debug("Ignoring unparseable access token on logout: {}", e.getMessage());
+            }
+        }
+        refreshTokenService.revoke(refreshToken);
+    }
 }
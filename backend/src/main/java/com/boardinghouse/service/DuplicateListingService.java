@@ -0,0 +1,245 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.DuplicateListingResponse;
+import com.boardinghouse.entity.Listing;
+import com.boardinghouse.event.ListingChangedEvent;
+import com.boardinghouse.repository.ListingRepository;
+import com.boardinghouse.util.MinHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Near-duplicate detection for the moderation queue.
+ *
+ * Every listing gets a MinHash signature over its description word shingles,
+ * amenities and normalized image URLs. Signatures are split into BANDS bands of
+ * ROWS values and each band is hashed into a bucket (LSH), so listings sharing any
+ * whole band become candidates. Looking up a listing's duplicates touches only
+ * its own BANDS buckets, whatever the catalog size. With 32 x 4, pairs at Jaccard
+ * 0.5 are caught about 87% of the time and pairs at 0.3 about 23%.
+ */
+@Service
+@Slf4j
+public class DuplicateListingService {
+
+    private static final int BANDS = 32;
+    private static final int ROWS = 4;
+    private static final int SHINGLE_WORDS = 3;
+    /** Listings with fewer features than this are too generic to compare */
+    private static final int MIN_FEATURES = 5;
+
+    private final ListingRepository listingRepository;
+    private final MinHash minHash = new MinHash(BANDS * ROWS, 0x5EEDL);
+
+    @Value("${listings.duplicates.min-similarity:0.5}")
+    private double minSimilarity;
+
+    @Value("${listings.duplicates.max-bucket-size:500}")
+    private int maxBucketSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, int[]> signatures = new HashMap<>();
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+
+    public DuplicateListingService(ListingRepository listingRepository) {
+        this.listingRepository = listingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        List<Listing> listings = listingRepository.findAll();
+        for (Listing listing : listings) {
+            index(listing);
+        }
+        log.info("Indexed {} of {} listings for duplicate detection in {} ms",
+                signatures.size(), listings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> index(event.getListing());
+            case DELETED -> remove(event.getListingId());
+            default -> {
+                // Moderation and ratings don't change content
+            }
+        }
+    }
+
+    /** Ids of listings that are probably duplicates of this one, most similar first */
+    public List<Long> findDuplicateIds(Long listingId) {
+        lock.readLock().lock();
+        try {
+            int[] signature = signatures.get(listingId);
+            if (signature == null) return List.of();
+
+            Set<Long> candidates = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                Set<Long> bucket = buckets.get(bandKey(signature, band));
+                if (bucket != null) candidates.addAll(bucket);
+            }
+            candidates.remove(listingId);
+
+            List<Map.Entry<Long, Double>> matches = new ArrayList<>();
+            for (Long candidate : candidates) {
+                double similarity = MinHash.estimateJaccard(signature, signatures.get(candidate));
+                if (similarity >= minSimilarity) matches.add(Map.entry(candidate, similarity));
+            }
+            matches.sort(Map.Entry.<Long, Double>comparingByValue().reversed());
+            return matches.stream().map(Map.Entry::getKey).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Likely duplicates with enough detail for a moderator to compare */
+    public List<DuplicateListingResponse> findDuplicates(Long listingId) {
+        List<Long> ids = findDuplicateIds(listingId);
+        int[] signature;
+        Map<Long, int[]> others = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            signature = signatures.get(listingId);
+            for (Long id : ids) others.put(id, signatures.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, Listing> byId = listingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+        List<DuplicateListingResponse> results = new ArrayList<>();
+        for (Long id : ids) {
+            Listing listing = byId.get(id);
+            int[] other = others.get(id);
+            if (listing == null || other == null) continue;
+            DuplicateListingResponse response = new DuplicateListingResponse();
+            response.setListingId(id);
+            response.setTitle(listing.getTitle());
+            response.setLocation(listing.getLocation());
+            response.setStatus(listing.getStatus() != null ? listing.getStatus().name() : null);
+            response.setLandlordId(listing.getLandlord() != null ? listing.getLandlord().getId() : null);
+            response.setSimilarity(Math.round(MinHash.estimateJaccard(signature, other) * 100) / 100.0);
+            results.add(response);
+        }
+        results.sort(Comparator.comparing(DuplicateListingResponse::getSimilarity).reversed());
+        return results;
+    }
+
+    private void index(Listing listing) {
+        Set<String> features = features(listing);
+        int[] signature = features.size() >= MIN_FEATURES ? minHash.signature(features) : null;
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(listing.getId());
+            if (signature == null) return;
+            signatures.put(listing.getId(), signature);
+            for (int band = 0; band < BANDS; band++) {
+                Set<Long> bucket = buckets.computeIfAbsent(bandKey(signature, band), k -> new HashSet<>());
+                // A huge bucket means a boilerplate band; stop growing it to keep lookups cheap
+                if (bucket.size() < maxBucketSize) bucket.add(listing.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long listingId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long listingId) {
+        int[] signature = signatures.remove(listingId);
+        if (signature == null) return;
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(signature, band);
+            Set<Long> bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(listingId) && bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    /** Description 3-word shingles, amenities and image paths, prefixed by kind */
+    static Set<String> features(Listing listing) {
+        Set<String> features = new LinkedHashSet<>();
+
+        String description = listing.getDescription() != null ? listing.getDescription().toLowerCase(Locale.ROOT) : "";
+        String[] words = description.split("[^\\p{L}\\p{N}]+");
+        List<String> tokens = new ArrayList<>();
+        for (String word : words) {
+            if (!word.isEmpty()) tokens.add(word);
+        }
+        if (tokens.size() < SHINGLE_WORDS) {
+            tokens.forEach(token -> features.add("d:" + token));
+        } else {
+            for (int i = 0; i + SHINGLE_WORDS <= tokens.size(); i++) {
+                features.add("d:" + String.join(" ", tokens.subList(i, i + SHINGLE_WORDS)));
+            }
+        }
+
+        if (listing.getAmenities() != null) {
+            for (String amenity : listing.getAmenities().split(",")) {
+                String normalized = amenity.trim().toLowerCase(Locale.ROOT);
+                if (!normalized.isEmpty()) features.add("a:" + normalized);
+            }
+        }
+
+        List<String> images = new ArrayList<>();
+        if (listing.getImage() != null) images.add(listing.getImage());
+        if (listing.getImageList() != null) images.addAll(List.of(listing.getImageList().split(",")));
+        for (String image : images) {
+            String normalized = normalizeImageUrl(image);
+            if (!normalized.isEmpty()) features.add("i:" + normalized);
+        }
+        return features;
+    }
+
+    /** Drops scheme, host, query and fragment so the same stored file matches however it's linked */
+    private static String normalizeImageUrl(String url) {
+        String u = url.trim().toLowerCase(Locale.ROOT);
+        int cut = u.indexOf('?');
+        if (cut >= 0) u = u.substring(0, cut);
+        cut = u.indexOf('#');
+        if (cut >= 0) u = u.substring(0, cut);
+        int scheme = u.indexOf("://");
+        if (scheme >= 0) {
+            int path = u.indexOf('/', scheme + 3);
+            u = path >= 0 ? u.substring(path) : "";
+        }
+        return u;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long h = band * 0x9E3779B97F4A7C15L;
+        for (int r = band * ROWS; r < (band + 1) * ROWS; r++) {
+            h = (h ^ signature[r]) * 0xbf58476d1ce4e5b9L;
+            h ^= h >>> 29;
+        }
+        return h;
+    }
+}
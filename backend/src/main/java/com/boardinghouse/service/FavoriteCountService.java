@@ -0,0 +1,147 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.event.FavoriteChangedEvent;
+import com.boardinghouse.event.ListingChangedEvent;
+import com.boardinghouse.repository.ListingRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Keeps Listing.favoriteCount in step with the favorites table without a COUNT(*)
+ * per read. Adds and removes are summed in memory per listing and written every
+ * listings.favorites.flush-interval ms as one relative UPDATE per listing, so a
+ * burst of saves on one listing costs one write.
+ *
+ * Counts can drift (a crash loses unflushed deltas), so a reconciliation pass
+ * recounts from favorites at startup and every listings.favorites.reconcile-interval
+ * ms, touching only rows that are off. Favorite writes go through track(), so the
+ * recount never sees a row whose delta is still to come (or the reverse) and
+ * nothing is counted twice; writes only wait while one chunk of drifted listings
+ * is recounted.
+ */
+@Service
+@Slf4j
+public class FavoriteCountService {
+
+    private static final int RECONCILE_CHUNK = 200;
+
+    private final ListingRepository listingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    /** Held shared by favorite writes until their event is counted, exclusively by reconcile */
+    private final ReadWriteLock writeGate = new ReentrantReadWriteLock();
+
+    public FavoriteCountService(ListingRepository listingRepository, TransactionTemplate transactionTemplate) {
+        this.listingRepository = listingRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Runs a favorite insert or delete, together with publishing its FavoriteChangedEvent.
+     * It must not run inside a caller's transaction: the row has to be committed
+     * before this returns.
+     */
+    public <T> T track(Supplier<T> write) {
+        writeGate.readLock().lock();
+        try {
+            return write.get();
+        } finally {
+            writeGate.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        pending.computeIfAbsent(event.getListingId(), id -> new LongAdder()).add(event.isAdded() ? 1 : -1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.getType() == ListingChangedEvent.Type.DELETED) {
+            pending.remove(event.getListingId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${listings.favorites.flush-interval:10000}")
+    public void flush() {
+        flushPending();
+    }
+
+    /** Returns false if the write failed and the deltas were put back */
+    private synchronized boolean flushPending() {
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            // Counters stay in the map (at most one per listing) so no racing add is lost
+            int delta = (int) entry.getValue().sumThenReset();
+            if (delta != 0) deltas.put(entry.getKey(), delta);
+        }
+        if (deltas.isEmpty()) return true;
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    deltas.forEach(listingRepository::addFavoriteCount));
+            return true;
+        } catch (Exception e) {
+            // Put the deltas back so the next flush retries them
+            log.warn("Failed to flush favorite counts for {} listings: {}", deltas.size(), e.getMessage());
+            deltas.forEach((id, delta) -> pending.computeIfAbsent(id, k -> new LongAdder()).add(delta));
+            return false;
+        }
+    }
+
+    /**
+     * Finds listings whose stored count looks off (without blocking writes), then per
+     * chunk: blocks favorite writes, flushes pending deltas and recounts the chunk.
+     * Every committed row is then either in the flushed deltas or still pending after
+     * the recount, never both. If a flush fails the recount is skipped, since the
+     * deltas put back would be applied on top of it.
+     */
+    @Scheduled(fixedDelayString = "${listings.favorites.reconcile-interval:21600000}",
+            initialDelayString = "${listings.favorites.reconcile-interval:21600000}")
+    public synchronized void reconcile() {
+        List<Long> drifted = listingRepository.findFavoriteCountDrift();
+        int fixed = 0;
+        for (int from = 0; from < drifted.size(); from += RECONCILE_CHUNK) {
+            List<Long> chunk = drifted.subList(from, Math.min(drifted.size(), from + RECONCILE_CHUNK));
+            writeGate.writeLock().lock();
+            try {
+                if (!flushPending()) {
+                    log.warn("Favorite count reconcile aborted after {} listings: flush failed", fixed);
+                    return;
+                }
+                fixed += transactionTemplate.execute(status -> listingRepository.recountFavoriteCounts(chunk));
+            } finally {
+                writeGate.writeLock().unlock();
+            }
+        }
+        if (fixed > 0) {
+            log.info("Reconciled favorite counts for {} listings", fixed);
+        }
+    }
+}
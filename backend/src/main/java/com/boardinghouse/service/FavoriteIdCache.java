@@ -0,0 +1,111 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.event.FavoriteChangedEvent;
+import com.boardinghouse.event.ListingChangedEvent;
+import com.boardinghouse.repository.FavoriteRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-student set of favorited listing ids, so "is this favorited?" for a page of
+ * cards is answered from memory. Each set is a sorted long[] (8 bytes an id, binary
+ * search), loaded with one query the first time it's needed and then kept current
+ * from FavoriteChangedEvent. At most favorites.cache.max-users sets are kept, least
+ * recently used dropped first.
+ *
+ * A set loaded while a change for any student was being applied might miss it, so
+ * such loads are returned but not cached.
+ */
+@Service
+public class FavoriteIdCache {
+
+    private final FavoriteRepository favoriteRepository;
+    private final Map<Long, long[]> sets;
+    private long changes;
+
+    public FavoriteIdCache(FavoriteRepository favoriteRepository,
+                           @Value("${favorites.cache.max-users:10000}") int maxUsers) {
+        this.favoriteRepository = favoriteRepository;
+        this.sets = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public boolean contains(Long userId, Long listingId) {
+        return Arrays.binarySearch(get(userId), listingId) >= 0;
+    }
+
+    /** Which of the listing ids the student has favorited, in the order given */
+    public Map<Long, Boolean> containsAll(Long userId, List<Long> listingIds) {
+        long[] ids = get(userId);
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (Long listingId : listingIds) {
+            if (listingId != null) result.put(listingId, Arrays.binarySearch(ids, listingId) >= 0);
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onFavoriteChanged(FavoriteChangedEvent event) {
+        changes++;
+        long[] ids = sets.get(event.getUserId());
+        if (ids == null) return;
+        sets.put(event.getUserId(), event.isAdded()
+                ? with(ids, event.getListingId())
+                : without(ids, event.getListingId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onListingChanged(ListingChangedEvent event) {
+        if (event.getType() != ListingChangedEvent.Type.DELETED) return;
+        // Favorites go with the listing; rare enough to sweep every cached set
+        changes++;
+        sets.replaceAll((userId, ids) -> without(ids, event.getListingId()));
+    }
+
+    private long[] get(Long userId) {
+        long seen;
+        synchronized (this) {
+            long[] ids = sets.get(userId);
+            if (ids != null) return ids;
+            seen = changes;
+        }
+        long[] loaded = favoriteRepository.findListingIdsByUserId(userId).stream()
+                .mapToLong(Long::longValue).sorted().distinct().toArray();
+        synchronized (this) {
+            if (changes == seen) sets.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    // Sets are replaced, never modified, so readers can search one outside the lock
+
+    private static long[] with(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at >= 0) return ids;
+        int insert = -at - 1;
+        long[] next = new long[ids.length + 1];
+        System.arraycopy(ids, 0, next, 0, insert);
+        next[insert] = id;
+        System.arraycopy(ids, insert, next, insert + 1, ids.length - insert);
+        return next;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) return ids;
+        long[] next = new long[ids.length - 1];
+        System.arraycopy(ids, 0, next, 0, at);
+        System.arraycopy(ids, at + 1, next, at, ids.length - at - 1);
+        return next;
+    }
+}
@@ -1,26 +1,45 @@
 package com.boardinghouse.service;
 
+import com.boardinghouse.dto.CursorPage;
 import com.boardinghouse.dto.FavoriteResponse;
 import com.boardinghouse.entity.Favorite;
 import com.boardinghouse.entity.Listing;
 import com.boardinghouse.entity.User;
+import com.boardinghouse.event.FavoriteChangedEvent;
+import com.boardinghouse.exception.ResourceNotFoundException;
+import com.boardinghouse.repository.FavoriteCardRow;
 import com.boardinghouse.repository.FavoriteRepository;
 import com.boardinghouse.repository.ListingRepository;
+import com.boardinghouse.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FavoriteService {
 
+    private static final int MAX_CONTAINS_IDS = 200;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final FavoriteRepository favoriteRepository;
     private final ListingRepository listingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FavoriteIdCache favoriteIdCache;
+    private final FavoriteCountService favoriteCountService;
 
     public Favorite addFavorite(Long listingId, User user) {
+        return favoriteCountService.track(() -> insertFavorite(listingId, user));
+    }
+
+    private Favorite insertFavorite(Long listingId, User user) {
         // Check if already favorited
         if (favoriteRepository.existsByUser_IdAndListing_Id(user.getId(), listingId)) {
             throw new IllegalStateException("Listing already in favorites");
@@ -34,23 +53,89 @@ public class FavoriteService {
                 .listing(listing)
                 .build();
 
-        return favoriteRepository.save(favorite);
+        Favorite saved;
+        try {
+            saved = favoriteRepository.save(favorite);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("Listing already in favorites");
+        }
+        eventPublisher.publishEvent(new FavoriteChangedEvent(user.getId(), listingId, true));
+        return saved;
+    }
+
+    /**
+     * Idempotent add: one INSERT that does nothing if the favorite is already there.
+     * Returns whether a row was added.
+     */
+    public boolean putFavorite(Long listingId, User user) {
+        return favoriteCountService.track(() -> insertFavoriteIfAbsent(listingId, user));
+    }
+
+    private boolean insertFavoriteIfAbsent(Long listingId, User user) {
+        int inserted;
+        try {
+            inserted = favoriteRepository.insertIfAbsent(user.getId(), listingId, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with an identical request (double-click); the favorite exists
+            return false;
+        }
+        if (inserted == 0) {
+            // Nothing inserted: already saved, or no such listing
+            if (!listingRepository.existsById(listingId)) {
+                throw new ResourceNotFoundException("Listing not found");
+            }
+            return false;
+        }
+        eventPublisher.publishEvent(new FavoriteChangedEvent(user.getId(), listingId, true));
+        return true;
+    }
+
+    /** Idempotent remove: one DELETE. Returns whether a row was removed */
+    public boolean removeFavorite(Long listingId, User user) {
+        return favoriteCountService.track(() -> deleteFavorite(listingId, user));
     }
 
-    @Transactional
-    public void removeFavorite(Long listingId, User user) {
-        if (!favoriteRepository.existsByUser_IdAndListing_Id(user.getId(), listingId)) {
-            throw new RuntimeException("Favorite not found");
+    private boolean deleteFavorite(Long listingId, User user) {
+        int deleted = favoriteRepository.deleteFavorite(user.getId(), listingId);
+        if (deleted > 0) {
+            eventPublisher.publishEvent(new FavoriteChangedEvent(user.getId(), listingId, false));
         }
-        favoriteRepository.deleteByUser_IdAndListing_Id(user.getId(), listingId);
+        return deleted > 0;
     }
 
     public List<Favorite> getFavoritesByUser(Long userId) {
         return favoriteRepository.findByUser_IdOrderByCreatedAtDesc(userId);
     }
 
+    /** All of the student's favorites as listing cards, newest first, in one query */
+    public List<FavoriteResponse> getFavoriteCards(Long userId) {
+        return favoriteRepository.findCardsByUserId(userId, Pageable.unpaged()).stream()
+                .map(this::toCardResponse)
+                .collect(Collectors.toList());
+    }
+
+    /** One page of the student's favorites as listing cards, after the given cursor */
+    public CursorPage<FavoriteResponse> getFavoriteCardsPage(Long userId, String cursor, int limit) {
+        return KeysetCursor.page(cursor, limit, MAX_PAGE_SIZE,
+                (after, page) -> after == null
+                        ? favoriteRepository.findCardsByUserId(userId, page)
+                        : favoriteRepository.findCardsByUserIdAfter(userId, after.createdAt(), after.id(), page),
+                this::toCardResponse);
+    }
+
     public boolean isFavorite(Long userId, Long listingId) {
-        return favoriteRepository.existsByUser_IdAndListing_Id(userId, listingId);
+        return favoriteIdCache.contains(userId, listingId);
+    }
+
+    /** Favorited flags for a page of listing ids, answered from FavoriteIdCache */
+    public Map<Long, Boolean> areFavorites(Long userId, List<Long> listingIds) {
+        if (listingIds == null || listingIds.isEmpty()) {
+            return Map.of();
+        }
+        if (listingIds.size() > MAX_CONTAINS_IDS) {
+            throw new RuntimeException("At most " + MAX_CONTAINS_IDS + " listing ids per request");
+        }
+        return favoriteIdCache.containsAll(userId, listingIds);
     }
 
     public FavoriteResponse toResponse(Favorite favorite) {
@@ -65,6 +150,24 @@ public class FavoriteService {
         return response;
     }
 
+    private FavoriteResponse toCardResponse(FavoriteCardRow row) {
+        FavoriteResponse response = new FavoriteResponse();
+        response.setId(row.getId());
+        response.setCreatedAt(row.getCreatedAt() != null ? row.getCreatedAt().toString() : null);
+        response.setListingId(row.getListingId());
+        response.setListingTitle(row.getTitle());
+        response.setListingImage(row.getImage());
+        response.setListingLocation(row.getLocation());
+        response.setListingPrice(row.getPrice());
+        response.setListingRoomType(row.getRoomType());
+        response.setListingRating(row.getRating());
+        response.setListingReviews(row.getReviews());
+        response.setListingAvailable(row.getAvailable());
+        response.setListingStatus(row.getStatus() != null ? row.getStatus().name() : null);
+        response.setListingFavoriteCount(row.getFavoriteCount() != null ? row.getFavoriteCount() : 0);
+        return response;
+    }
+
     public List<FavoriteResponse> toResponseList(List<Favorite> favorites) {
         return favorites.stream().map(this::toResponse).collect(Collectors.toList());
     }
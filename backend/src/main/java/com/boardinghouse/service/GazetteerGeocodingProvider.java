@@ -0,0 +1,379 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.util.SphereKdTree;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Offline geocoding from a local place-name extract in GeoNames TSV format
+ * (e.g. PH.txt from download.geonames.org, or any file with the same columns).
+ *
+ * On first start the TSV is compiled into a sorted binary index next to it;
+ * the index is then memory-mapped, so lookups are a binary search over
+ * fixed-size records with no heap allocation per place and no network.
+ *
+ * Index layout: header (magic, version, record count, heap offset), then
+ * RECORD_BYTES-sized records sorted by normalized name key, then a heap of
+ * UTF-8 strings the records point into.
+ */
+@Component
+@Order(1)
+@Slf4j
+public class GazetteerGeocodingProvider implements GeocodingProvider {
+
+    private static final int MAGIC = 0x475A5431; // "GZT1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    // keyOffset(4) keyLength(2) nameLength(2) nameOffset(4) population(4) latitude(8) longitude(8)
+    private static final int RECORD_BYTES = 32;
+    private static final int MAX_PREFIX_SCAN = 2000;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9]+");
+
+    @Value("${geocoding.gazetteer.path:}")
+    private String datasetPath;
+
+    @Value("${geocoding.gazetteer.index-path:}")
+    private String indexPath;
+
+    @Value("${geocoding.gazetteer.reverse-max-km:2}")
+    private double reverseMaxKm;
+
+    private volatile ByteBuffer index;
+    private int recordCount;
+    private int heapOffset;
+    private int[] placeRecords;
+    private SphereKdTree placeTree;
+
+    @PostConstruct
+    public void load() {
+        if (datasetPath == null || datasetPath.isBlank()) {
+            log.info("No gazetteer dataset configured; offline geocoding disabled");
+            return;
+        }
+
+        Path source = Path.of(datasetPath);
+        Path target = indexPath == null || indexPath.isBlank() ? Path.of(datasetPath + ".idx") : Path.of(indexPath);
+
+        try {
+            if (Files.exists(source) && (!Files.exists(target)
+                    || Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(source)) < 0)) {
+                long start = System.currentTimeMillis();
+                int entries = buildIndex(source, target);
+                log.info("Built gazetteer index with {} entries in {} ms", entries, System.currentTimeMillis() - start);
+            }
+            if (!Files.exists(target)) {
+                log.warn("Gazetteer dataset not found at {}; offline geocoding disabled", source);
+                return;
+            }
+            map(target);
+            log.info("Gazetteer loaded: {} entries from {}", recordCount, target);
+        } catch (IOException e) {
+            log.error("Failed to load gazetteer from {}", source, e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "gazetteer";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return index != null;
+    }
+
+    /**
+     * Answers only when the whole address is place names ("Lahug, Cebu City"), with
+     * the first, most specific one's coordinates. Anything with a street part
+     * ("123 Sanciangko St, Cebu City") gets no answer, so it falls through to a
+     * street-level provider instead of coming back as the city centroid.
+     */
+    @Override
+    public Map<String, Double> geocode(String address) {
+        Map<String, Double> result = new HashMap<>();
+        if (!isAvailable()) return result;
+
+        int first = -1;
+        for (String part : address.split(",")) {
+            byte[] key = normalize(part).getBytes(StandardCharsets.UTF_8);
+            if (key.length == 0) continue;
+
+            int best = bestMatch(key);
+            if (best < 0) return result;
+            if (first < 0) first = best;
+        }
+        if (first >= 0) {
+            result.put("latitude", latitude(first));
+            result.put("longitude", longitude(first));
+        }
+        return result;
+    }
+
+    /** Most populous place whose name is exactly key, or -1 */
+    private int bestMatch(byte[] key) {
+        int best = -1;
+        for (int i = lowerBound(key); i < recordCount && compareKey(i, key, false) == 0; i++) {
+            if (best < 0 || population(i) > population(best)) best = i;
+        }
+        return best;
+    }
+
+    /** Prefix match on the first comma-separated part, most populous places first */
+    @Override
+    public List<Map<String, Object>> search(String query, int limit) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        if (!isAvailable()) return results;
+
+        byte[] prefix = normalize(query.split(",")[0]).getBytes(StandardCharsets.UTF_8);
+        if (prefix.length == 0) return results;
+
+        List<Integer> matches = new ArrayList<>();
+        for (int i = lowerBound(prefix); i < recordCount && matches.size() < MAX_PREFIX_SCAN
+                && compareKey(i, prefix, true) == 0; i++) {
+            matches.add(i);
+        }
+        matches.sort((a, b) -> Integer.compare(population(b), population(a)));
+
+        // A place is indexed under several names; show it once
+        Set<Integer> seenPlaces = new HashSet<>();
+        for (int i : matches) {
+            if (results.size() >= limit) break;
+            if (!seenPlaces.add(nameOffset(i))) continue;
+
+            Map<String, Object> location = new HashMap<>();
+            location.put("displayName", displayName(i));
+            location.put("latitude", latitude(i));
+            location.put("longitude", longitude(i));
+            location.put("type", "place");
+            // Scale population to Nominatim's 0..1 importance range
+            location.put("importance", Math.min(1.0, Math.log10(population(i) + 1.0) / 7));
+            results.add(location);
+        }
+        return results;
+    }
+
+    /** Nearest indexed place within reverse-max-km, from the KD-tree over distinct places */
+    @Override
+    public String reverse(double latitude, double longitude) {
+        if (!isAvailable()) return "";
+
+        SphereKdTree.Neighbor[] nearest = placeTree.nearest(latitude, longitude, 1, i -> true);
+        if (nearest.length == 0 || nearest[0].distanceKm() > reverseMaxKm) return "";
+        return displayName(placeRecords[nearest[0].index()]);
+    }
+
+    /* ---------------------
+       Index reading
+       --------------------- */
+
+    private void map(Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a gazetteer index: " + target);
+            }
+            recordCount = buffer.getInt(8);
+            heapOffset = buffer.getInt(12);
+            buildPlaceTree(buffer);
+            index = buffer;
+        }
+    }
+
+    /** One point per place (alternate names share a display name offset) for reverse lookups */
+    private void buildPlaceTree(ByteBuffer buffer) {
+        Set<Integer> seen = new HashSet<>();
+        int[] records = new int[recordCount];
+        double[] latitudes = new double[recordCount];
+        double[] longitudes = new double[recordCount];
+        int places = 0;
+        for (int i = 0; i < recordCount; i++) {
+            int base = recordBase(i);
+            if (!seen.add(buffer.getInt(base + 8))) continue;
+            records[places] = i;
+            latitudes[places] = buffer.getDouble(base + 16);
+            longitudes[places] = buffer.getDouble(base + 24);
+            places++;
+        }
+        placeRecords = Arrays.copyOf(records, places);
+        placeTree = new SphereKdTree(latitudes, longitudes, places);
+    }
+
+    private int recordBase(int i) {
+        return HEADER_BYTES + i * RECORD_BYTES;
+    }
+
+    private int population(int i) {
+        return index.getInt(recordBase(i) + 12);
+    }
+
+    private int nameOffset(int i) {
+        return index.getInt(recordBase(i) + 8);
+    }
+
+    private double latitude(int i) {
+        return index.getDouble(recordBase(i) + 16);
+    }
+
+    private double longitude(int i) {
+        return index.getDouble(recordBase(i) + 24);
+    }
+
+    private String displayName(int i) {
+        int length = Short.toUnsignedInt(index.getShort(recordBase(i) + 6));
+        byte[] bytes = new byte[length];
+        index.get(heapOffset + nameOffset(i), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Unsigned byte comparison of record i's key with probe; prefixOnly compares the first probe.length bytes */
+    private int compareKey(int i, byte[] probe, boolean prefixOnly) {
+        int base = recordBase(i);
+        int keyStart = heapOffset + index.getInt(base);
+        int keyLength = Short.toUnsignedInt(index.getShort(base + 4));
+        int n = Math.min(keyLength, probe.length);
+        for (int k = 0; k < n; k++) {
+            int cmp = Integer.compare(index.get(keyStart + k) & 0xff, probe[k] & 0xff);
+            if (cmp != 0) return cmp;
+        }
+        if (prefixOnly && keyLength >= probe.length) return 0;
+        return Integer.compare(keyLength, probe.length);
+    }
+
+    /** First record whose key is >= probe */
+    private int lowerBound(byte[] probe) {
+        int lo = 0;
+        int hi = recordCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareKey(mid, probe, false) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /* ---------------------
+       Index building
+       --------------------- */
+
+    private record Entry(byte[] key, int nameOffset, int nameLength, int population, double latitude, double longitude) {}
+
+    /**
+     * GeoNames columns: 0 id, 1 name, 2 asciiname, 3 alternatenames, 4 latitude,
+     * 5 longitude, 6 feature class, 8 country code, 14 population.
+     * Only populated places (P), areas (A), spots/buildings (S) and localities (L) are kept.
+     */
+    private int buildIndex(Path source, Path target) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        ByteArrayOutputStream names = new ByteArrayOutputStream();
+
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] cols = line.split("\t", -1);
+                if (cols.length < 15 || !"PASL".contains(cols[6]) || cols[6].isEmpty()) continue;
+
+                double lat;
+                double lon;
+                int population;
+                try {
+                    lat = Double.parseDouble(cols[4]);
+                    lon = Double.parseDouble(cols[5]);
+                    population = cols[14].isEmpty() ? 0 : (int) Math.min(Integer.MAX_VALUE, Long.parseLong(cols[14]));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+
+                String display = cols[8].isEmpty() ? cols[1] : cols[1] + ", " + cols[8];
+                byte[] displayBytes = truncate(display.getBytes(StandardCharsets.UTF_8));
+                int nameOffset = names.size();
+                names.write(displayBytes);
+
+                Set<String> keys = new LinkedHashSet<>();
+                keys.add(normalize(cols[1]));
+                keys.add(normalize(cols[2]));
+                for (String alternate : cols[3].split(",")) {
+                    keys.add(normalize(alternate));
+                }
+                for (String key : keys) {
+                    if (key.isEmpty()) continue;
+                    entries.add(new Entry(truncate(key.getBytes(StandardCharsets.UTF_8)),
+                            nameOffset, displayBytes.length, population, lat, lon));
+                }
+            }
+        }
+
+        entries.sort((a, b) -> Arrays.compareUnsigned(a.key(), b.key()));
+
+        // Heap = display names followed by keys
+        ByteArrayOutputStream heap = new ByteArrayOutputStream(names.size() + entries.size() * 16);
+        names.writeTo(heap);
+        int[] keyOffsets = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keyOffsets[i] = heap.size();
+            heap.write(entries.get(i).key());
+        }
+
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            out.writeInt(HEADER_BYTES + entries.size() * RECORD_BYTES);
+            for (int i = 0; i < entries.size(); i++) {
+                Entry e = entries.get(i);
+                out.writeInt(keyOffsets[i]);
+                out.writeShort(e.key().length);
+                out.writeShort(e.nameLength());
+                out.writeInt(e.nameOffset());
+                out.writeInt(e.population());
+                out.writeDouble(e.latitude());
+                out.writeDouble(e.longitude());
+            }
+            heap.writeTo(out);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return entries.size();
+    }
+
+    private static byte[] truncate(byte[] bytes) {
+        return bytes.length <= 0xFFFF ? bytes : Arrays.copyOf(bytes, 0xFFFF);
+    }
+
+    /** Lowercase, strip accents and collapse punctuation/whitespace to single spaces */
+    static String normalize(String text) {
+        if (text == null) return "";
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALNUM.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
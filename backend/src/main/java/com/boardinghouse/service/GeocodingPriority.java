@@ -0,0 +1,28 @@
+package com.boardinghouse.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks geocoding done on behalf of a batch, so rate-limited providers can let
+ * interactive lookups (autocomplete, /geocode, /reverse) go first.
+ */
+public final class GeocodingPriority {
+
+    private static final ThreadLocal<Boolean> BATCH = ThreadLocal.withInitial(() -> false);
+
+    private GeocodingPriority() {
+    }
+
+    public static <T> T asBatch(Supplier<T> work) {
+        BATCH.set(true);
+        try {
+            return work.get();
+        } finally {
+            BATCH.remove();
+        }
+    }
+
+    public static boolean isBatch() {
+        return BATCH.get();
+    }
+}
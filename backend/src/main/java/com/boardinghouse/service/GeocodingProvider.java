@@ -0,0 +1,26 @@
+package com.boardinghouse.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A source of geocoding results. GeocodingService asks providers in @Order
+ * and uses the first non-empty answer, so a provider signals "don't know"
+ * by returning an empty map, list or string rather than throwing.
+ */
+public interface GeocodingProvider {
+
+    String getName();
+
+    /** False when the provider has nothing to serve (e.g. no dataset configured) */
+    boolean isAvailable();
+
+    /** Map with "latitude" and "longitude", or empty if not found */
+    Map<String, Double> geocode(String address);
+
+    /** Suggestions with displayName, latitude, longitude, type and importance */
+    List<Map<String, Object>> search(String query, int limit);
+
+    /** Display name of the place at the coordinates, or empty string if not found */
+    String reverse(double latitude, double longitude);
+}
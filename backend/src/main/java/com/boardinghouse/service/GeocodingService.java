@@ -1,111 +1,179 @@
 package com.boardinghouse.service;
 
-import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.ResponseEntity;
-import org.springframework.beans.factory.annotation.Autowired;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.boardinghouse.util.GeoUtils;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
- * Service for geocoding operations using Nominatim (OpenStreetMap)
- * Note: For production use, consider implementing rate limiting and caching
- * to comply with Nominatim's usage policy.
+ * Service for geocoding operations.
+ * Providers are tried in @Order: the local gazetteer first (fast, offline),
+ * then Nominatim (OpenStreetMap) for anything the gazetteer doesn't know.
+ * Successful address lookups are kept in a bounded LRU cache keyed by the
+ * normalized address, so repeated and batch lookups don't go upstream again.
  */
 @Service
 @Slf4j
 public class GeocodingService {
 
-    private static final String NOMINATIM_SEARCH_URL = "https://nominatim.openstreetmap.org/search";
-    private static final String NOMINATIM_REVERSE_URL = "https://nominatim.openstreetmap.org/reverse";
-    
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private static final int SEARCH_LIMIT = 5;
+
+    private final List<GeocodingProvider> providers;
+    private final Map<String, Map<String, Double>> cache;
+    private final ExecutorService batchExecutor;
+
+    public GeocodingService(List<GeocodingProvider> providers,
+                            @Value("${geocoding.cache.max-entries:10000}") int cacheMaxEntries,
+                            @Value("${geocoding.batch.parallelism:4}") int batchParallelism) {
+        this.providers = providers;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, Double>> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        this.batchExecutor = Executors.newFixedThreadPool(Math.max(1, batchParallelism), r -> {
+            Thread thread = new Thread(r, "geocode-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Geocoding providers: {}", providers.stream().map(GeocodingProvider::getName).toList());
+    }
 
-    @Autowired
-    public GeocodingService(ObjectMapper objectMapper) {
-        this.restTemplate = new RestTemplate();
-        this.objectMapper = objectMapper;
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
     }
 
     /**
-     * Geocode an address to coordinates using Nominatim
+     * Geocode an address to coordinates
      * @param address The address to geocode
      * @return Map with latitude and longitude, or empty map if not found
      */
     public Map<String, Double> geocodeAddress(String address) {
-        Map<String, Double> result = new HashMap<>();
-        
         if (address == null || address.isBlank()) {
-            return result;
+            return new HashMap<>();
+        }
+
+        String key = cacheKey(address);
+        Map<String, Double> cached = cache.get(key);
+        if (cached != null) {
+            return new HashMap<>(cached);
+        }
+
+        for (GeocodingProvider provider : providers) {
+            if (!provider.isAvailable()) continue;
+            Map<String, Double> result = provider.geocode(address);
+            if (!result.isEmpty()) {
+                cache.put(key, Map.copyOf(result));
+                return result;
+            }
+        }
+        return new HashMap<>();
+    }
+
+    /**
+     * Geocode many addresses, handing each result to the sink as soon as it is known.
+     * Duplicate addresses are resolved once, cache hits are emitted first, and misses
+     * run on the shared batch pool (the upstream rate limit still applies per request).
+     * The sink is only ever called from the calling thread.
+     * @param addresses Addresses in request order
+     * @param sink Receives one map per input address: index, address, status and coordinates
+     */
+    public void geocodeBatch(List<String> addresses, Consumer<Map<String, Object>> sink) {
+        // normalized address -> positions in the request that share it
+        Map<String, List<Integer>> pending = new LinkedHashMap<>();
+        for (int i = 0; i < addresses.size(); i++) {
+            String address = addresses.get(i);
+            if (address == null || address.isBlank()) {
+                sink.accept(batchResult(i, address, "invalid", null, false));
+                continue;
+            }
+            pending.computeIfAbsent(cacheKey(address), k -> new ArrayList<>()).add(i);
+        }
+
+        CompletionService<BatchOutcome> completion = new ExecutorCompletionService<>(batchExecutor);
+        // future -> normalized address it resolves, so a failed task can still be reported
+        Map<Future<BatchOutcome>, String> futures = new HashMap<>();
+
+        for (Map.Entry<String, List<Integer>> entry : pending.entrySet()) {
+            Map<String, Double> cached = cache.get(entry.getKey());
+            if (cached != null) {
+                emitAll(addresses, entry.getValue(), "ok", cached, true, sink);
+                continue;
+            }
+            String key = entry.getKey();
+            String address = addresses.get(entry.getValue().get(0));
+            Future<BatchOutcome> future = completion.submit(() -> {
+                try {
+                    // Lower priority than interactive lookups at rate-limited providers
+                    return new BatchOutcome(key, GeocodingPriority.asBatch(() -> geocodeAddress(address)), false);
+                } catch (RuntimeException e) {
+                    log.warn("Batch geocoding failed for address: {}", address, e);
+                    return new BatchOutcome(key, Map.of(), true);
+                }
+            });
+            futures.put(future, key);
         }
 
         try {
-            String encodedAddress = URLEncoder.encode(address, StandardCharsets.UTF_8);
-            String url = String.format("%s?format=json&q=%s&limit=1", NOMINATIM_SEARCH_URL, encodedAddress);
-            
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-            
-            if (response.getBody() != null) {
-                JsonNode jsonArray = objectMapper.readTree(response.getBody());
-                if (jsonArray.isArray() && !jsonArray.isEmpty()) {
-                    JsonNode firstResult = jsonArray.get(0);
-                    result.put("latitude", firstResult.get("lat").asDouble());
-                    result.put("longitude", firstResult.get("lon").asDouble());
+            for (int i = 0; i < futures.size(); i++) {
+                Future<BatchOutcome> done = completion.take();
+                try {
+                    BatchOutcome outcome = done.get();
+                    String status = outcome.failed() ? "error" : outcome.coordinates().isEmpty() ? "not_found" : "ok";
+                    emitAll(addresses, pending.get(outcome.key()), status, outcome.coordinates(), false, sink);
+                } catch (ExecutionException | CancellationException e) {
+                    // Tasks catch their own failures; report this address and carry on with the rest
+                    log.error("Batch geocoding task failed", e.getCause() != null ? e.getCause() : e);
+                    emitAll(addresses, pending.get(futures.get(done)), "error", Map.of(), false, sink);
                 }
             }
-        } catch (Exception e) {
-            log.error("Error geocoding address: {}", address, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Client went away or we were interrupted: don't keep spending upstream quota
+            futures.keySet().forEach(f -> f.cancel(true));
         }
-
-        return result;
     }
 
     /**
-     * Search for location suggestions using Nominatim
+     * Search for location suggestions
      * @param query The search query
      * @return List of location suggestions
      */
     public List<Map<String, Object>> searchLocations(String query) {
-        List<Map<String, Object>> results = new ArrayList<>();
-        
         if (query == null || query.isBlank() || query.length() < 3) {
-            return results;
+            return new ArrayList<>();
         }
 
-        try {
-            String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
-            String url = String.format("%s?format=json&q=%s&limit=5&addressdetails=1", NOMINATIM_SEARCH_URL, encodedQuery);
-            
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-            
-            if (response.getBody() != null) {
-                JsonNode jsonArray = objectMapper.readTree(response.getBody());
-                if (jsonArray.isArray()) {
-                    for (JsonNode node : jsonArray) {
-                        Map<String, Object> location = new HashMap<>();
-                        location.put("displayName", node.get("display_name").asText());
-                        location.put("latitude", node.get("lat").asDouble());
-                        location.put("longitude", node.get("lon").asDouble());
-                        location.put("type", node.has("type") ? node.get("type").asText() : "");
-                        location.put("importance", node.has("importance") ? node.get("importance").asDouble() : 0.0);
-                        results.add(location);
-                    }
-                }
+        for (GeocodingProvider provider : providers) {
+            if (!provider.isAvailable()) continue;
+            List<Map<String, Object>> results = provider.search(query, SEARCH_LIMIT);
+            if (!results.isEmpty()) {
+                return results;
             }
-        } catch (Exception e) {
-            log.error("Error searching locations: {}", query, e);
         }
-
-        return results;
+        return new ArrayList<>();
     }
 
     /**
@@ -115,21 +183,13 @@ public class GeocodingService {
      * @return The address string or empty string if not found
      */
     public String reverseGeocode(double latitude, double longitude) {
-        try {
-            String url = String.format("%s?format=json&lat=%f&lon=%f", NOMINATIM_REVERSE_URL, latitude, longitude);
-            
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-            
-            if (response.getBody() != null) {
-                JsonNode jsonNode = objectMapper.readTree(response.getBody());
-                if (jsonNode.has("display_name")) {
-                    return jsonNode.get("display_name").asText();
-                }
+        for (GeocodingProvider provider : providers) {
+            if (!provider.isAvailable()) continue;
+            String address = provider.reverse(latitude, longitude);
+            if (!address.isEmpty()) {
+                return address;
             }
-        } catch (Exception e) {
-            log.error("Error reverse geocoding: lat={}, lon={}", latitude, longitude, e);
         }
-
         return "";
     }
 
@@ -142,17 +202,34 @@ public class GeocodingService {
      * @return Distance in kilometers
      */
     public double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int EARTH_RADIUS = 6371; // Earth's radius in km
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        
-        return EARTH_RADIUS * c;
+        return GeoUtils.haversineKm(lat1, lon1, lat2, lon2);
+    }
+
+    private record BatchOutcome(String key, Map<String, Double> coordinates, boolean failed) {
+    }
+
+    private static void emitAll(List<String> addresses, List<Integer> indexes, String status,
+                                Map<String, Double> coordinates, boolean cached, Consumer<Map<String, Object>> sink) {
+        for (int index : indexes) {
+            sink.accept(batchResult(index, addresses.get(index), status, coordinates, cached));
+        }
+    }
+
+    private static Map<String, Object> batchResult(int index, String address, String status,
+                                                   Map<String, Double> coordinates, boolean cached) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("index", index);
+        line.put("address", address);
+        line.put("status", status);
+        if (coordinates != null && !coordinates.isEmpty()) {
+            line.put("latitude", coordinates.get("latitude"));
+            line.put("longitude", coordinates.get("longitude"));
+        }
+        line.put("cached", cached);
+        return line;
+    }
+
+    private static String cacheKey(String address) {
+        return address.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
     }
 }
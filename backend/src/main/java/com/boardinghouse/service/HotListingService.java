@@ -0,0 +1,195 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.util.CountMinSketch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the listings whose detail pages get most of the traffic and keeps them
+ * pinned and warm in ListingCache.
+ *
+ * Every detail request goes into a Count-Min Sketch (fixed memory however many
+ * listings there are), and a small top-K map keeps the ids whose estimates beat
+ * the current K-th. Counts are halved every listings.hot.decay-interval so the set
+ * follows current traffic. The hot list is written to listings.hot.path when it
+ * changes and read back at startup, so the cache comes up warm after a deploy.
+ */
+@Service
+@Slf4j
+public class HotListingService {
+
+    private final ListingCache listingCache;
+    private final TransactionTemplate transactionTemplate;
+    private final CountMinSketch sketch;
+    private final int topK;
+
+    @Value("${listings.hot.pin-count:50}")
+    private int pinCount;
+
+    @Value("${listings.hot.path:}")
+    private String hotListPath;
+
+    /** listingId -> estimated requests, for the current top-K candidates */
+    private final Map<Long, Integer> top = new HashMap<>();
+    private int topMin;
+    private List<Long> pinned = List.of();
+
+    public HotListingService(ListingCache listingCache, TransactionTemplate transactionTemplate,
+                             @Value("${listings.hot.sketch-width:2048}") int width,
+                             @Value("${listings.hot.sketch-depth:4}") int depth,
+                             @Value("${listings.hot.top-k:100}") int topK) {
+        this.listingCache = listingCache;
+        this.transactionTemplate = transactionTemplate;
+        this.sketch = new CountMinSketch(depth, width, 0x407L);
+        this.topK = topK;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Long> ids = readHotList();
+        if (ids.isEmpty()) return;
+        synchronized (this) {
+            pinned = ids;
+        }
+        listingCache.pin(ids);
+        warm(ids);
+        log.info("Pre-warmed {} hot listings from {}", ids.size(), hotListPath);
+    }
+
+    /** Counts one detail request for the listing */
+    public synchronized void record(Long listingId) {
+        int estimate = sketch.add(listingId);
+        if (top.containsKey(listingId)) {
+            top.put(listingId, estimate);
+        } else if (top.size() < topK) {
+            top.put(listingId, estimate);
+            topMin = top.size() == 1 ? estimate : Math.min(topMin, estimate);
+        } else if (estimate > topMin) {
+            Long coldest = null;
+            for (Map.Entry<Long, Integer> entry : top.entrySet()) {
+                if (coldest == null || entry.getValue() < top.get(coldest)) coldest = entry.getKey();
+            }
+            // topMin can lag behind as members' counts grow; the scan settles it
+            if (estimate > top.get(coldest)) {
+                top.remove(coldest);
+                top.put(listingId, estimate);
+            }
+            topMin = top.values().stream().mapToInt(Integer::intValue).min().orElse(0);
+        }
+    }
+
+    /** Re-pins the heaviest hitters, reloads any that expired, and saves the list if it changed */
+    @Scheduled(fixedDelayString = "${listings.hot.refresh-interval:60000}",
+            initialDelayString = "${listings.hot.refresh-interval:60000}")
+    public void refresh() {
+        List<Long> next;
+        boolean changed;
+        synchronized (this) {
+            next = hottest(pinCount).keySet().stream().toList();
+            changed = !next.equals(pinned);
+            // Keep the persisted list until there's traffic to replace it
+            if (next.isEmpty()) return;
+            pinned = next;
+        }
+        listingCache.pin(next);
+        warm(next);
+        if (changed) writeHotList(next);
+    }
+
+    @Scheduled(fixedDelayString = "${listings.hot.decay-interval:3600000}",
+            initialDelayString = "${listings.hot.decay-interval:3600000}")
+    public synchronized void decay() {
+        sketch.halve();
+        top.replaceAll((id, count) -> count >>> 1);
+        top.values().removeIf(count -> count == 0);
+        topMin = top.values().stream().mapToInt(Integer::intValue).min().orElse(0);
+    }
+
+    public synchronized Map<String, Object> getDiagnostics() {
+        Map<String, Object> sketchInfo = new LinkedHashMap<>();
+        sketchInfo.put("width", sketch.getWidth());
+        sketchInfo.put("depth", sketch.getDepth());
+        sketchInfo.put("totalRequests", sketch.getTotal());
+        // With probability 1 - e^-depth, no estimate is more than this above its true count
+        sketchInfo.put("maxOvercount", Math.round(Math.E / sketch.getWidth() * sketch.getTotal()));
+
+        List<Map<String, Object>> hottest = new ArrayList<>();
+        hottest(topK).forEach((id, count) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("listingId", id);
+            row.put("estimatedRequests", count);
+            row.put("pinned", pinned.contains(id));
+            hottest.add(row);
+        });
+
+        Map<String, Object> diagnostics = new LinkedHashMap<>();
+        diagnostics.put("sketch", sketchInfo);
+        diagnostics.put("topK", hottest);
+        diagnostics.put("pinned", pinned);
+        diagnostics.put("cache", listingCache.getStats());
+        return diagnostics;
+    }
+
+    /** Top-K candidates by estimate, highest first */
+    private Map<Long, Integer> hottest(int limit) {
+        Map<Long, Integer> sorted = new LinkedHashMap<>();
+        top.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    private void warm(List<Long> ids) {
+        try {
+            // One session so building responses can reach the landlord association
+            transactionTemplate.executeWithoutResult(status -> listingCache.getApproved(ids));
+        } catch (Exception e) {
+            log.warn("Could not warm {} hot listings: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    private List<Long> readHotList() {
+        if (hotListPath == null || hotListPath.isBlank()) return List.of();
+        Path path = Path.of(hotListPath);
+        if (!Files.exists(path)) return List.of();
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) ids.add(Long.parseLong(line.trim()));
+            }
+            return ids.size() > pinCount ? ids.subList(0, pinCount) : ids;
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable hot listing file {}: {}", path, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private void writeHotList(List<Long> ids) {
+        if (hotListPath == null || hotListPath.isBlank()) return;
+        Path target = Path.of(hotListPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.write(temp, ids.stream().map(String::valueOf).toList(), StandardCharsets.UTF_8);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write hot listing file {}", target, e);
+        }
+    }
+}
@@ -5,9 +5,11 @@ import com.boardinghouse.dto.InquiryResponse;
 import com.boardinghouse.entity.Inquiry;
 import com.boardinghouse.entity.Listing;
 import com.boardinghouse.entity.User;
+import com.boardinghouse.event.InquiryCreatedEvent;
 import com.boardinghouse.repository.InquiryRepository;
 import com.boardinghouse.repository.ListingRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -22,6 +24,7 @@ public class InquiryService {
 
     private final InquiryRepository inquiryRepository;
     private final ListingRepository listingRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Inquiry createInquiry(InquiryRequest request, User student) {
         Listing listing = listingRepository.findById(request.getListingId())
@@ -53,7 +56,9 @@ public class InquiryService {
             }
         }
 
-        return inquiryRepository.save(inquiry);
+        Inquiry saved = inquiryRepository.save(inquiry);
+        eventPublisher.publishEvent(new InquiryCreatedEvent(student.getId(), listing.getId()));
+        return saved;
     }
 
     public List<Inquiry> getInquiriesByLandlord(Long landlordId) {
@@ -0,0 +1,173 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.ListingBatchResponse;
+import com.boardinghouse.dto.ListingResponse;
+import com.boardinghouse.entity.Listing;
+import com.boardinghouse.event.ListingChangedEvent;
+import com.boardinghouse.repository.ListingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of student-facing responses for approved listings. Entries are dropped
+ * on any ListingChangedEvent for the listing, and expire after listings.cache.ttl ms
+ * so counters such as viewCount don't drift far. Pinned listings (the hottest ones,
+ * see HotListingService) live outside the LRU and are never evicted by it.
+ *
+ * Cached responses are shared: callers must not modify them.
+ */
+@Service
+public class ListingCache {
+
+    private static final int MAX_BATCH = 100;
+
+    private final ListingRepository listingRepository;
+    private final ListingService listingService;
+    private final long ttlMillis;
+    private final Map<Long, Entry> entries;
+    private final Map<Long, Entry> pinned = new HashMap<>();
+    private Set<Long> pinnedIds = Set.of();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ListingCache(ListingRepository listingRepository, ListingService listingService,
+                        @Value("${listings.cache.max-entries:5000}") int maxEntries,
+                        @Value("${listings.cache.ttl:60000}") long ttlMillis) {
+        this.listingRepository = listingRepository;
+        this.listingService = listingService;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        invalidate(event.getListingId());
+    }
+
+    public synchronized void invalidate(Long listingId) {
+        entries.remove(listingId);
+        pinned.remove(listingId);
+    }
+
+    /** Replaces the pinned set; cached entries move between the LRU and the pinned map */
+    public synchronized void pin(Collection<Long> listingIds) {
+        Set<Long> next = Set.copyOf(listingIds);
+        for (Long id : pinnedIds) {
+            Entry entry = pinned.remove(id);
+            if (entry != null && !next.contains(id)) entries.put(id, entry);
+        }
+        for (Long id : next) {
+            Entry entry = entries.remove(id);
+            if (entry != null) pinned.put(id, entry);
+        }
+        pinnedIds = next;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("pinnedEntries", pinned.size());
+        stats.put("pinnedIds", pinnedIds.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        return stats;
+    }
+
+    /**
+     * The approved listing's response, from cache when possible.
+     * Throws like the uncached endpoint did when it's missing or not approved.
+     */
+    public ListingResponse getApproved(Long id) {
+        ListingResponse cached = lookup(id);
+        if (cached != null) return cached;
+
+        Listing listing = listingService.getById(id);
+        if (listing.getStatus() != Listing.ListingStatus.APPROVED) {
+            throw new RuntimeException("Listing not available");
+        }
+        return store(listing);
+    }
+
+    /**
+     * Responses for whichever of the ids are approved listings; misses are loaded, with
+     * their landlords, in one query
+     */
+    public Map<Long, ListingResponse> getApproved(Collection<Long> ids) {
+        Map<Long, ListingResponse> found = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            ListingResponse cached = lookup(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Listing listing : listingRepository.findAllWithLandlordByIdIn(missing)) {
+                if (listing.getStatus() == Listing.ListingStatus.APPROVED) {
+                    found.put(listing.getId(), store(listing));
+                }
+            }
+        }
+        return found;
+    }
+
+    /** Multi-get for up to MAX_BATCH ids: one item per id in request order, marked when not found */
+    public ListingBatchResponse getBatch(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ListingBatchResponse(List.of());
+        }
+        if (ids.size() > MAX_BATCH) {
+            throw new RuntimeException("At most " + MAX_BATCH + " ids per request");
+        }
+        Map<Long, ListingResponse> found = getApproved(ids.stream().filter(Objects::nonNull).distinct().toList());
+        List<ListingBatchResponse.Item> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ListingResponse response = found.get(id);
+            items.add(new ListingBatchResponse.Item(id, response != null, response));
+        }
+        return new ListingBatchResponse(items);
+    }
+
+    private synchronized ListingResponse lookup(Long id) {
+        Map<Long, Entry> map = pinnedIds.contains(id) ? pinned : entries;
+        Entry entry = map.get(id);
+        if (entry == null || System.currentTimeMillis() - entry.loadedAt > ttlMillis) {
+            if (entry != null) map.remove(id);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.response;
+    }
+
+    private ListingResponse store(Listing listing) {
+        ListingResponse response = listingService.toResponse(listing);
+        synchronized (this) {
+            Map<Long, Entry> map = pinnedIds.contains(listing.getId()) ? pinned : entries;
+            map.put(listing.getId(), new Entry(response, System.currentTimeMillis()));
+        }
+        return response;
+    }
+
+    private record Entry(ListingResponse response, long loadedAt) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.ListingClusterResponse;
+import com.boardinghouse.util.PointKdTree;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical map clusters over approved listings (the supercluster approach).
+ *
+ * Coordinates are projected to Web Mercator in [0, 1]. Starting from the raw
+ * points at maxZoom + 1, each zoom level greedily merges points that lie within
+ * radius pixels of each other into weighted centroids, and keeps one KD-tree
+ * per level. A viewport query is then a range search on a single level, so the
+ * response size depends on the viewport and zoom, not on the catalog size.
+ *
+ * The levels are rebuilt off the request path from each ApprovedListingPoints
+ * snapshot and swapped in atomically.
+ */
+@Service
+@Slf4j
+public class ListingClusterService {
+
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final int minZoom;
+    private final int maxZoom;
+    private final double radius;
+    private final double extent;
+
+    /** Indexed by zoom, minZoom .. maxZoom + 1; replaced wholesale on rebuild */
+    private volatile Level[] levels = new Level[0];
+
+    public ListingClusterService(ApprovedListingPoints approvedListingPoints,
+                                 @Value("${listings.clusters.min-zoom:0}") int minZoom,
+                                 @Value("${listings.clusters.max-zoom:16}") int maxZoom,
+                                 @Value("${listings.clusters.radius:60}") double radius,
+                                 @Value("${listings.clusters.extent:512}") double extent) {
+        this.minZoom = minZoom;
+        this.maxZoom = maxZoom;
+        this.radius = radius;
+        this.extent = extent;
+        approvedListingPoints.subscribeSnapshots(this::rebuild);
+    }
+
+    /**
+     * Clusters and single listings visible in the bounding box at the given zoom.
+     * A box whose west edge is east of its east edge wraps across the antimeridian.
+     */
+    public List<ListingClusterResponse> getClusters(double minLon, double minLat, double maxLon, double maxLat, int zoom) {
+        Level[] snapshot = levels;
+        List<ListingClusterResponse> results = new ArrayList<>();
+        if (snapshot.length == 0) return results;
+
+        Level level = snapshot[Math.max(minZoom, Math.min(zoom, maxZoom + 1)) - minZoom];
+
+        if (maxLon - minLon >= 360) {
+            minLon = -180;
+            maxLon = 180;
+        } else {
+            minLon = normalizeLongitude(minLon);
+            maxLon = normalizeLongitude(maxLon);
+        }
+        double minY = latY(maxLat);
+        double maxY = latY(minLat);
+
+        if (minLon > maxLon) {
+            level.collect(lngX(minLon), minY, 1, maxY, results);
+            level.collect(0, minY, lngX(maxLon), maxY, results);
+        } else {
+            level.collect(lngX(minLon), minY, lngX(maxLon), maxY, results);
+        }
+        return results;
+    }
+
+    private synchronized void rebuild(ApprovedListingPoints.Snapshot points) {
+        long start = System.nanoTime();
+
+        int n = points.size();
+        Level level = new Level(n);
+        for (int i = 0; i < n; i++) {
+            level.add(lngX(points.longitudes()[i]), latY(points.latitudes()[i]), 1, points.listingIds()[i], maxZoom + 1);
+        }
+        level.index();
+
+        Level[] built = new Level[maxZoom + 2 - minZoom];
+        built[maxZoom + 1 - minZoom] = level;
+        for (int z = maxZoom; z >= minZoom; z--) {
+            level = cluster(level, z);
+            built[z - minZoom] = level;
+        }
+        levels = built;
+
+        log.debug("Rebuilt listing clusters for {} points in {} ms", n, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Merges the points of the level above into clusters for zoom z */
+    private Level cluster(Level above, int zoom) {
+        double r = radius / (extent * Math.pow(2, zoom));
+        boolean[] merged = new boolean[above.size];
+        Level level = new Level(above.size);
+        List<Integer> neighbors = new ArrayList<>();
+
+        for (int i = 0; i < above.size; i++) {
+            if (merged[i]) continue;
+            merged[i] = true;
+
+            neighbors.clear();
+            above.tree.within(above.x[i], above.y[i], r, j -> {
+                if (!merged[j]) neighbors.add(j);
+            });
+
+            if (neighbors.isEmpty()) {
+                level.add(above.x[i], above.y[i], above.count[i], above.listingId[i], above.expansionZoom[i]);
+                continue;
+            }
+
+            int count = above.count[i];
+            double wx = above.x[i] * count;
+            double wy = above.y[i] * count;
+            for (int j : neighbors) {
+                merged[j] = true;
+                wx += above.x[j] * above.count[j];
+                wy += above.y[j] * above.count[j];
+                count += above.count[j];
+            }
+            level.add(wx / count, wy / count, count, -1, zoom + 1);
+        }
+        level.index();
+        return level;
+    }
+
+    private static double normalizeLongitude(double lon) {
+        return ((lon + 180) % 360 + 360) % 360 - 180;
+    }
+
+    private static double lngX(double lon) {
+        return lon / 360 + 0.5;
+    }
+
+    private static double latY(double lat) {
+        double sin = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat))));
+        double y = 0.5 - 0.25 * Math.log((1 + sin) / (1 - sin)) / Math.PI;
+        return Math.max(0, Math.min(1, y));
+    }
+
+    private static double xLng(double x) {
+        return (x - 0.5) * 360;
+    }
+
+    private static double yLat(double y) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+    }
+
+    /** One zoom level: parallel arrays of cluster centroids plus their KD-tree */
+    private static final class Level {
+
+        final double[] x;
+        final double[] y;
+        final int[] count;
+        final long[] listingId;
+        final int[] expansionZoom;
+        int size;
+        PointKdTree tree;
+
+        Level(int capacity) {
+            x = new double[capacity];
+            y = new double[capacity];
+            count = new int[capacity];
+            listingId = new long[capacity];
+            expansionZoom = new int[capacity];
+        }
+
+        void add(double px, double py, int pointCount, long id, int splitZoom) {
+            x[size] = px;
+            y[size] = py;
+            count[size] = pointCount;
+            listingId[size] = id;
+            expansionZoom[size] = splitZoom;
+            size++;
+        }
+
+        void index() {
+            tree = new PointKdTree(x, y, size);
+        }
+
+        void collect(double minX, double minY, double maxX, double maxY, List<ListingClusterResponse> out) {
+            tree.range(minX, minY, maxX, maxY, i -> out.add(count[i] == 1
+                    ? new ListingClusterResponse(yLat(y[i]), xLng(x[i]), 1, listingId[i], null)
+                    : new ListingClusterResponse(yLat(y[i]), xLng(x[i]), count[i], null, expansionZoom[i])));
+        }
+    }
+}
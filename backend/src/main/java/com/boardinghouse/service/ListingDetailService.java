@@ -0,0 +1,170 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.ListingDetailResponse;
+import com.boardinghouse.entity.Rating;
+import com.boardinghouse.entity.User;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Everything the listing detail screen needs in one request: the listing, the first
+ * page of ratings, the student's own rating and whether they saved it. The listing
+ * is loaded first (usually a ListingCache hit), so a missing or unapproved listing
+ * costs no pool work. The optional parts then run concurrently on a bounded pool and
+ * share a listings.detail.part-timeout ms deadline; one that fails, times out or
+ * can't be queued is left out and named in "unavailable" rather than failing the
+ * whole response, and a timed-out part is cancelled so it stops holding a pool
+ * thread. The view is registered in the background on its own small pool, so a
+ * burst of views can't crowd the parts out.
+ */
+@Service
+@Slf4j
+public class ListingDetailService {
+
+    private final ListingCache listingCache;
+    private final ListingService listingService;
+    private final RatingService ratingService;
+    private final FavoriteService favoriteService;
+    private final ListingViewerService listingViewerService;
+    private final TrendingListingService trendingListingService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor viewExecutor;
+
+    @Value("${listings.detail.part-timeout:800}")
+    private long partTimeoutMillis;
+
+    @Value("${listings.detail.ratings-limit:10}")
+    private int ratingsLimit;
+
+    @Value("${listings.detail.review-length:300}")
+    private int reviewLength;
+
+    public ListingDetailService(ListingCache listingCache, ListingService listingService,
+                                RatingService ratingService, FavoriteService favoriteService,
+                                ListingViewerService listingViewerService,
+                                TrendingListingService trendingListingService,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${listings.detail.threads:8}") int threads,
+                                @Value("${listings.detail.queue-capacity:200}") int queueCapacity,
+                                @Value("${listings.detail.view-threads:2}") int viewThreads,
+                                @Value("${listings.detail.view-queue-capacity:1000}") int viewQueueCapacity) {
+        this.listingCache = listingCache;
+        this.listingService = listingService;
+        this.ratingService = ratingService;
+        this.favoriteService = favoriteService;
+        this.listingViewerService = listingViewerService;
+        this.trendingListingService = trendingListingService;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = newPool("listing-detail-", threads, queueCapacity);
+        this.viewExecutor = newPool("listing-view-", viewThreads, viewQueueCapacity);
+    }
+
+    private static ThreadPoolExecutor newPool(String namePrefix, int threads, int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        viewExecutor.shutdown();
+    }
+
+    /**
+     * The composite detail payload. viewer is the signed-in user, or null; viewerKey
+     * identifies them for unique-viewer counting. Throws like the plain listing
+     * endpoint when the listing is missing or not approved.
+     */
+    public ListingDetailResponse getDetail(Long listingId, User viewer, String viewerKey) {
+        boolean student = viewer != null && "student".equalsIgnoreCase(viewer.getRole());
+
+        ListingDetailResponse response = new ListingDetailResponse();
+        response.setListing(listingCache.getApproved(listingId));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(partTimeoutMillis);
+        Future<?> ratings = start(() -> ratingService.getRatingsPage(listingId, null, ratingsLimit, reviewLength));
+        Future<?> myRating = student ? start(() -> transactionTemplate.execute(status -> {
+            // Inside a transaction so the response can read the rating's user
+            Rating rating = ratingService.getRatingByUserAndListing(viewer.getId(), listingId);
+            return rating != null ? ratingService.toResponse(rating) : null;
+        })) : null;
+        Future<?> favorited = student ? start(() -> favoriteService.isFavorite(viewer.getId(), listingId)) : null;
+        registerView(listingId, viewerKey);
+
+        List<String> unavailable = new ArrayList<>();
+        response.setRatings(join("ratings", ratings, deadline, unavailable));
+        if (student) {
+            response.setMyRating(join("myRating", myRating, deadline, unavailable));
+            response.setFavorited(join("favorited", favorited, deadline, unavailable));
+        }
+        response.setUnavailable(unavailable);
+        return response;
+    }
+
+    private <T> Future<T> start(Supplier<T> part) {
+        try {
+            return executor.submit(part::get);
+        } catch (RejectedExecutionException e) {
+            // Pool saturated
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Waits for a part until the shared deadline; a part still running then is cancelled */
+    @SuppressWarnings("unchecked")
+    private <T> T join(String name, Future<?> future, long deadline, List<String> unavailable) {
+        try {
+            return (T) future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.debug("Listing detail part {} timed out", name);
+        } catch (ExecutionException e) {
+            log.debug("Listing detail part {} unavailable: {}", name, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        unavailable.add(name);
+        return null;
+    }
+
+    private void registerView(Long listingId, String viewerKey) {
+        try {
+            viewExecutor.execute(() -> {
+                try {
+                    listingService.incrementViewCount(listingId);
+                    listingViewerService.recordViewer(listingId, viewerKey);
+                    trendingListingService.recordView(listingId);
+                } catch (RuntimeException e) {
+                    log.warn("Could not register view of listing {}: {}", listingId, e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Dropped view of listing {}: view pool is full", listingId);
+        }
+    }
+}
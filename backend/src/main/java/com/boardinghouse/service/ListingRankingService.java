@@ -0,0 +1,198 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.ListingResponse;
+import com.boardinghouse.entity.Listing;
+import com.boardinghouse.event.ListingChangedEvent;
+import com.boardinghouse.ranking.RankingContext;
+import com.boardinghouse.ranking.RankingFeatures;
+import com.boardinghouse.ranking.RankingListing;
+import com.boardinghouse.ranking.RankingQuery;
+import com.boardinghouse.ranking.RankingSignal;
+import com.boardinghouse.repository.ListingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranks approved listings by the weighted sum of every RankingSignal bean.
+ *
+ * Features for the whole catalog live in one immutable RankingFeatures snapshot,
+ * rebuilt in the background after listing changes (debounced) and periodically
+ * so view counts stay fresh. A query scores the candidates column by column into
+ * one double[] and keeps the best `limit` positions in a bounded min-heap.
+ */
+@Service
+@Slf4j
+public class ListingRankingService {
+
+    private final ListingRepository listingRepository;
+    private final ListingService listingService;
+    private final List<RankingSignal> signals;
+
+    @Value("${ranking.rating.prior-weight:5}")
+    private double ratingPriorWeight;
+
+    @Value("${ranking.max-limit:100}")
+    private int maxLimit;
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile RankingFeatures features = RankingFeatures.empty();
+
+    public ListingRankingService(ListingRepository listingRepository, ListingService listingService,
+                                 List<RankingSignal> signals) {
+        this.listingRepository = listingRepository;
+        this.listingService = listingService;
+        this.signals = signals;
+        log.info("Ranking signals: {}", signals.stream().map(s -> s.getName() + "=" + s.getWeight()).toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${ranking.rebuild-interval:5000}")
+    public void rebuildIfDirty() {
+        if (dirty.compareAndSet(true, false)) {
+            rebuild();
+        }
+    }
+
+    /** View counts change without events; pick them up on a slower cadence */
+    @Scheduled(fixedDelayString = "${ranking.refresh-interval:300000}", initialDelayString = "${ranking.refresh-interval:300000}")
+    public void refresh() {
+        dirty.set(false);
+        rebuild();
+    }
+
+    public List<ListingResponse> rank(RankingQuery query, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new RuntimeException("limit must be between 1 and " + maxLimit);
+        }
+
+        long start = System.nanoTime();
+        RankingFeatures f = features;
+        int[] positions = rankPositions(f, query, limit);
+
+        List<Long> ids = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            ids.add(f.getListingIds()[position]);
+        }
+        long rankedNanos = System.nanoTime() - start;
+
+        Map<Long, Listing> byId = listingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+        List<ListingResponse> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Listing listing = byId.get(id);
+            if (listing != null && listing.getStatus() == Listing.ListingStatus.APPROVED) {
+                results.add(listingService.toResponse(listing));
+            }
+        }
+
+        log.debug("Ranked {} listings in {} us", f.getSize(), rankedNanos / 1000);
+        return results;
+    }
+
+    /** Best `limit` feature positions for the query, highest score first */
+    int[] rankPositions(RankingFeatures f, RankingQuery query, int limit) {
+        int n = f.getSize();
+        double[] textScores = null;
+        int[] candidates = new int[n];
+        int count = 0;
+
+        if (query.hasText()) {
+            // Text queries only consider listings matching at least one token
+            textScores = f.textScores(RankingFeatures.tokenize(query.getText()));
+            for (int i = 0; i < n; i++) {
+                if (textScores[i] > 0) candidates[count++] = i;
+            }
+        } else {
+            for (int i = 0; i < n; i++) candidates[i] = i;
+            count = n;
+        }
+        if (count == 0) return new int[0];
+
+        RankingContext context = new RankingContext(query, f, candidates, count, textScores);
+        double[] totals = new double[n];
+        for (RankingSignal signal : signals) {
+            if (signal.getWeight() <= 0 || !signal.appliesTo(query)) continue;
+            signal.accumulate(context, signal.getWeight(), totals);
+        }
+
+        // Bounded min-heap: the root is the weakest of the current top-k
+        int k = Math.min(limit, count);
+        int[] heap = new int[k];
+        int size = 0;
+        for (int c = 0; c < count; c++) {
+            int i = candidates[c];
+            if (size < k) {
+                heap[size] = i;
+                siftUp(heap, size++, totals);
+            } else if (totals[i] > totals[heap[0]]) {
+                heap[0] = i;
+                siftDown(heap, size, totals);
+            }
+        }
+
+        int[] ranked = new int[size];
+        for (int r = size - 1; r >= 0; r--) {
+            ranked[r] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, totals);
+        }
+        return ranked;
+    }
+
+    private synchronized void rebuild() {
+        long start = System.nanoTime();
+        List<RankingListing> approved = listingRepository.findRankingListingsByStatus(Listing.ListingStatus.APPROVED);
+        features = RankingFeatures.build(approved, ratingPriorWeight);
+        log.debug("Rebuilt ranking features for {} listings in {} ms", approved.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void siftUp(int[] heap, int i, double[] totals) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (totals[heap[parent]] <= totals[heap[i]]) return;
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, double[] totals) {
+        int i = 0;
+        while (true) {
+            int l = 2 * i + 1;
+            int r = l + 1;
+            int smallest = i;
+            if (l < size && totals[heap[l]] < totals[heap[smallest]]) smallest = l;
+            if (r < size && totals[heap[r]] < totals[heap[smallest]]) smallest = r;
+            if (smallest == i) return;
+            swap(heap, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int t = heap[a];
+        heap[a] = heap[b];
+        heap[b] = t;
+    }
+}
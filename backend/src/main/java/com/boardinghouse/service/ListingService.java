@@ -4,9 +4,14 @@ import com.boardinghouse.dto.ListingRequest;
 import com.boardinghouse.dto.ListingResponse;
 import com.boardinghouse.entity.Listing;
 import com.boardinghouse.entity.User;
+import com.boardinghouse.event.ListingChangedEvent;
 import com.boardinghouse.repository.ListingRepository;
+import com.boardinghouse.repository.ListingViewCountRow;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
 import java.util.List;
@@ -16,7 +21,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ListingService {
 
+    private static final int MAX_TOP_RATED = 100;
+
     private final ListingRepository listingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListingViewStatsService listingViewStatsService;
 
     public List<Listing> getAll() {
         return listingRepository.findAll();
@@ -36,6 +45,15 @@ public class ListingService {
         return listingRepository.findByStatusAndLocationContainingIgnoreCase(Listing.ListingStatus.APPROVED, q);
     }
 
+    /** Approved listings by stored Bayesian rating, served from the (status, bayesian_rating) index */
+    public List<Listing> getTopRated(int limit) {
+        if (limit < 1 || limit > MAX_TOP_RATED) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_TOP_RATED);
+        }
+        return listingRepository.findByStatusAndBayesianRatingNotNullOrderByBayesianRatingDesc(
+                Listing.ListingStatus.APPROVED, PageRequest.of(0, limit));
+    }
+
     public Listing create(ListingRequest req, User landlord) {
         System.out.println("Creating listing for landlord ID: " + landlord.getId());
 
@@ -68,6 +86,7 @@ public class ListingService {
 
         Listing saved = listingRepository.save(listing);
         System.out.println("Listing saved with ID: " + saved.getId());
+        eventPublisher.publishEvent(new ListingChangedEvent(saved.getId(), ListingChangedEvent.Type.CREATED, saved));
         return saved;
     }
 
@@ -87,8 +106,6 @@ public class ListingService {
         existing.setNearbySchools(req.getNearbySchools());
         existing.setDistance(req.getDistance());
         existing.setRoomType(req.getRoomType());
-        existing.setRating(req.getRating() != null ? req.getRating() : existing.getRating());
-        existing.setReviews(req.getReviews() != null ? req.getReviews() : existing.getReviews());
         existing.setPrice(req.getPrice());
         existing.setAvailable(req.getAvailable() != null ? req.getAvailable() : existing.getAvailable());
         existing.setAmenities(req.getAmenities() != null ? String.join(",", req.getAmenities()) : existing.getAmenities());
@@ -102,11 +119,14 @@ public class ListingService {
             existing.setRejectionNotes(null);
         }
 
-        return listingRepository.save(existing);
+        Listing saved = listingRepository.save(existing);
+        eventPublisher.publishEvent(new ListingChangedEvent(saved.getId(), ListingChangedEvent.Type.UPDATED, saved));
+        return saved;
     }
 
     public void delete(Long id) {
         listingRepository.deleteById(id);
+        eventPublisher.publishEvent(new ListingChangedEvent(id, ListingChangedEvent.Type.DELETED, null));
     }
 
     public List<Listing> getByLandlord(Long landlordId) {
@@ -116,18 +136,28 @@ public class ListingService {
         return listings;
     }
 
-    public Listing incrementViewCount(Long id) {
-        Listing listing = getById(id);
-        Integer currentViews = listing.getViewCount() != null ? listing.getViewCount() : 0;
-        listing.setViewCount(currentViews + 1);
-        return listingRepository.save(listing);
+    /** One atomic UPDATE, so concurrent views and entity saves can't lose increments; returns the new count */
+    @Transactional
+    public int incrementViewCount(Long id) {
+        if (listingRepository.incrementViewCount(id) == 0) {
+            throw new RuntimeException("Listing not found");
+        }
+        listingViewStatsService.recordView(id, listingRepository.findLandlordIdById(id).orElse(null));
+        Integer views = listingRepository.findViewCountById(id);
+        return views != null ? views : 0;
+    }
+
+    public List<Long> getIdsByLandlord(Long landlordId) {
+        return listingRepository.findIdsByLandlordId(landlordId);
+    }
+
+    /** Id, title and raw view count of each of the landlord's listings, without loading the entities */
+    public List<ListingViewCountRow> getViewCountsByLandlord(Long landlordId) {
+        return listingRepository.findViewCountsByLandlordId(landlordId);
     }
 
     public Integer getTotalViewsByLandlord(Long landlordId) {
-        List<Listing> listings = getByLandlord(landlordId);
-        return listings.stream()
-                .mapToInt(l -> l.getViewCount() != null ? l.getViewCount() : 0)
-                .sum();
+        return (int) listingRepository.sumViewCountByLandlordId(landlordId);
     }
 
     /* ---------------------
@@ -158,6 +188,8 @@ public class ListingService {
         r.setRoomType(l.getRoomType());
         r.setRating(l.getRating());
         r.setReviews(l.getReviews());
+        r.setBayesianRating(l.getBayesianRating());
+        r.setRatingHistogram(Arrays.stream(RatingService.histogram(l)).boxed().collect(Collectors.toList()));
         r.setAvailable(l.getAvailable());
         r.setLatitude(l.getLatitude());
         r.setLongitude(l.getLongitude());
@@ -167,6 +199,8 @@ public class ListingService {
         r.setStatus(l.getStatus() != null ? l.getStatus().name() : "PENDING");
         r.setRejectionNotes(l.getRejectionNotes());
         r.setViewCount(l.getViewCount() != null ? l.getViewCount() : 0);
+        r.setFavoriteCount(l.getFavoriteCount() != null ? l.getFavoriteCount() : 0);
+        r.setCreatedAt(l.getCreatedAt() != null ? l.getCreatedAt().toString() : null);
 
         if (l.getAmenities() != null && !l.getAmenities().isBlank()) {
             List<String> am = Arrays.stream(l.getAmenities().split(","))
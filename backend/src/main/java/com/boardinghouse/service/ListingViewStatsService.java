@@ -0,0 +1,297 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.ViewTimeseriesResponse;
+import com.boardinghouse.entity.ListingViewRollup;
+import com.boardinghouse.entity.ListingViewRollup.Granularity;
+import com.boardinghouse.event.ListingChangedEvent;
+import com.boardinghouse.repository.ListingViewRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-listing view time series for the landlord dashboard.
+ *
+ * Views are counted in memory per (listing, hour) and flushed every
+ * listings.views.flush-interval ms as increments to HOUR rollup rows. Hourly rows
+ * older than hourly-retention-days are folded into DAY rows, and DAY rows older
+ * than daily-retention-days into WEEK rows (weeks start on Monday), so storage
+ * per listing stays small however long it has been listed. Queries only read
+ * rollup rows; views still in memory show up after the next flush.
+ */
+@Service
+@Slf4j
+public class ListingViewStatsService {
+
+    private final ListingViewRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${listings.views.hourly-retention-days:7}")
+    private int hourlyRetentionDays;
+
+    @Value("${listings.views.daily-retention-days:90}")
+    private int dailyRetentionDays;
+
+    @Value("${listings.views.max-points:2000}")
+    private int maxPoints;
+
+    private final Map<BucketKey, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public ListingViewStatsService(ListingViewRollupRepository rollupRepository,
+                                   TransactionTemplate transactionTemplate) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /** Counts one view of the listing in the current hour */
+    public void recordView(Long listingId, Long landlordId) {
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        pending.computeIfAbsent(new BucketKey(listingId, landlordId, hour), k -> new LongAdder()).increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.getType() == ListingChangedEvent.Type.DELETED) {
+            pending.keySet().removeIf(key -> key.listingId.equals(event.getListingId()));
+            transactionTemplate.executeWithoutResult(status -> rollupRepository.deleteByListingId(event.getListingId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${listings.views.flush-interval:60000}")
+    public void flush() {
+        LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        Map<BucketKey, Long> counts = new HashMap<>();
+        for (Map.Entry<BucketKey, LongAdder> entry : pending.entrySet()) {
+            long views = entry.getValue().sumThenReset();
+            if (views > 0) counts.put(entry.getKey(), views);
+            // Past hours get no new views, so their counters can go
+            if (entry.getKey().bucketStart.isBefore(currentHour)) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        if (counts.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeHourly(counts));
+        } catch (Exception e) {
+            // Put the counts back so the next flush retries them
+            log.warn("Failed to flush {} view buckets: {}", counts.size(), e.getMessage());
+            counts.forEach((key, views) -> pending.computeIfAbsent(key, k -> new LongAdder()).add(views));
+        }
+    }
+
+    private void writeHourly(Map<BucketKey, Long> counts) {
+        Set<LocalDateTime> hours = new HashSet<>();
+        Set<Long> listingIds = new HashSet<>();
+        counts.keySet().forEach(key -> {
+            hours.add(key.bucketStart);
+            listingIds.add(key.listingId);
+        });
+        Map<BucketKey, ListingViewRollup> existing = new HashMap<>();
+        for (ListingViewRollup row : rollupRepository.findByGranularityAndBucketStartInAndListingIdIn(
+                Granularity.HOUR, hours, listingIds)) {
+            existing.put(new BucketKey(row.getListingId(), null, row.getBucketStart()), row);
+        }
+
+        List<ListingViewRollup> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, views) -> {
+            ListingViewRollup row = existing.get(new BucketKey(key.listingId, null, key.bucketStart));
+            if (row == null) {
+                row = ListingViewRollup.builder()
+                        .listingId(key.listingId)
+                        .landlordId(key.landlordId)
+                        .granularity(Granularity.HOUR)
+                        .bucketStart(key.bucketStart)
+                        .views(0L)
+                        .build();
+            }
+            row.setViews(row.getViews() + views);
+            rows.add(row);
+        });
+        rollupRepository.saveAll(rows);
+    }
+
+    /** Folds old hourly rows into days and old daily rows into weeks */
+    @Scheduled(fixedDelayString = "${listings.views.downsample-interval:3600000}")
+    public void downsample() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        int hours = transactionTemplate.execute(status ->
+                fold(Granularity.HOUR, Granularity.DAY, today.minusDays(hourlyRetentionDays)));
+        // Cut on a week boundary so no week is split between DAY and WEEK rows
+        LocalDateTime weekCutoff = today.minusDays(dailyRetentionDays)
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        int days = transactionTemplate.execute(status -> fold(Granularity.DAY, Granularity.WEEK, weekCutoff));
+        if (hours > 0 || days > 0) {
+            log.info("Downsampled {} hourly and {} daily view rollups", hours, days);
+        }
+    }
+
+    private int fold(Granularity from, Granularity to, LocalDateTime before) {
+        List<ListingViewRollup> old = rollupRepository.findByGranularityAndBucketStartBefore(from, before);
+        if (old.isEmpty()) return 0;
+
+        Map<BucketKey, Long> folded = new HashMap<>();
+        Map<Long, Long> landlords = new HashMap<>();
+        for (ListingViewRollup row : old) {
+            folded.merge(new BucketKey(row.getListingId(), null, truncate(row.getBucketStart(), to)),
+                    row.getViews(), Long::sum);
+            if (row.getLandlordId() != null) landlords.put(row.getListingId(), row.getLandlordId());
+        }
+
+        Set<LocalDateTime> buckets = new HashSet<>();
+        Set<Long> listingIds = new HashSet<>();
+        folded.keySet().forEach(key -> {
+            buckets.add(key.bucketStart);
+            listingIds.add(key.listingId);
+        });
+        Map<BucketKey, ListingViewRollup> existing = new HashMap<>();
+        for (ListingViewRollup row : rollupRepository.findByGranularityAndBucketStartInAndListingIdIn(
+                to, buckets, listingIds)) {
+            existing.put(new BucketKey(row.getListingId(), null, row.getBucketStart()), row);
+        }
+
+        List<ListingViewRollup> rows = new ArrayList<>(folded.size());
+        folded.forEach((key, views) -> {
+            ListingViewRollup row = existing.get(key);
+            if (row == null) {
+                row = ListingViewRollup.builder()
+                        .listingId(key.listingId)
+                        .landlordId(landlords.get(key.listingId))
+                        .granularity(to)
+                        .bucketStart(key.bucketStart)
+                        .views(0L)
+                        .build();
+            }
+            row.setViews(row.getViews() + views);
+            rows.add(row);
+        });
+        rollupRepository.saveAll(rows);
+        rollupRepository.deleteByGranularityBefore(from, before);
+        return old.size();
+    }
+
+    /**
+     * Views per bucket over [from, to) for all of a landlord's listings, or one of them.
+     * Finer rows are summed into the requested granularity. Where the range reaches back
+     * past the finer rows' retention, the coarser rows they were folded into are returned
+     * as they are, labelled with their own bucket start and granularity; such a row counts
+     * in full even if it only partly overlaps the range.
+     */
+    public ViewTimeseriesResponse getTimeseries(Long landlordId, Long listingId, Granularity granularity,
+                                                LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = truncate(from, granularity);
+        if (!start.isBefore(to)) {
+            throw new RuntimeException("from must be before to");
+        }
+        long buckets = switch (granularity) {
+            case HOUR -> ChronoUnit.HOURS.between(start, to);
+            case DAY -> ChronoUnit.DAYS.between(start, to);
+            case WEEK -> ChronoUnit.WEEKS.between(start, to);
+        };
+        if (buckets > maxPoints) {
+            throw new RuntimeException("Range too large for " + granularity + " buckets (max " + maxPoints + ")");
+        }
+
+        // A coarser row overlapping the range can start up to a week before it
+        Set<Granularity> granularities = EnumSet.allOf(Granularity.class);
+        LocalDateTime queryStart = truncate(start, Granularity.WEEK);
+        List<ListingViewRollup> rows = listingId != null
+                ? rollupRepository.findForListing(listingId, granularities, queryStart, to)
+                : rollupRepository.findForLandlord(landlordId, granularities, queryStart, to);
+
+        TreeMap<SeriesKey, Long> series = new TreeMap<>(
+                Comparator.comparing(SeriesKey::bucketStart).thenComparing(SeriesKey::granularity));
+        long total = 0;
+        for (ListingViewRollup row : rows) {
+            Granularity rowGranularity = row.getGranularity();
+            if (!end(row.getBucketStart(), rowGranularity).isAfter(start)) continue;
+            SeriesKey key = rowGranularity.compareTo(granularity) <= 0
+                    ? new SeriesKey(truncate(row.getBucketStart(), granularity), granularity)
+                    : new SeriesKey(row.getBucketStart(), rowGranularity);
+            series.merge(key, row.getViews(), Long::sum);
+            total += row.getViews();
+        }
+
+        List<ViewTimeseriesResponse.Point> points = new ArrayList<>(series.size());
+        series.forEach((key, views) -> points.add(
+                new ViewTimeseriesResponse.Point(key.bucketStart().toString(), key.granularity().name(), views)));
+
+        ViewTimeseriesResponse response = new ViewTimeseriesResponse();
+        response.setGranularity(granularity.name());
+        response.setFrom(start.toString());
+        response.setTo(to.toString());
+        response.setListingId(listingId);
+        response.setTotalViews(total);
+        response.setPoints(points);
+        return response;
+    }
+
+    private static LocalDateTime end(LocalDateTime bucketStart, Granularity granularity) {
+        return switch (granularity) {
+            case HOUR -> bucketStart.plusHours(1);
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+        };
+    }
+
+    private record SeriesKey(LocalDateTime bucketStart, Granularity granularity) {
+    }
+
+    private static LocalDateTime truncate(LocalDateTime time, Granularity granularity) {
+        return switch (granularity) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+    }
+
+    /** landlordId rides along for new rows; it is not part of the identity */
+    private static final class BucketKey {
+
+        final Long listingId;
+        final Long landlordId;
+        final LocalDateTime bucketStart;
+
+        BucketKey(Long listingId, Long landlordId, LocalDateTime bucketStart) {
+            this.listingId = listingId;
+            this.landlordId = landlordId;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BucketKey other && listingId.equals(other.listingId) && bucketStart.equals(other.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * listingId.hashCode() + bucketStart.hashCode();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.entity.ListingViewerSketch;
+import com.boardinghouse.event.ListingChangedEvent;
+import com.boardinghouse.repository.ListingViewerSketchRepository;
+import com.boardinghouse.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distinct viewers per listing, so refreshes and repeat visits don't inflate the
+ * numbers landlords see. Each listing has a HyperLogLog sketch (1.5 KB, ~2.3% error)
+ * of viewer ids: the user id when signed in, otherwise a hash of IP and user agent.
+ * Sketches are loaded on first use and written back every
+ * listings.viewers.flush-interval ms when they changed. No per-viewer rows are kept.
+ */
+@Service
+@Slf4j
+public class ListingViewerService {
+
+    private static final int PRECISION = 11;
+
+    private final ListingViewerSketchRepository sketchRepository;
+
+    private final Map<Long, HyperLogLog> sketches = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public ListingViewerService(ListingViewerSketchRepository sketchRepository) {
+        this.sketchRepository = sketchRepository;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /** Records a view of the listing by viewerKey (any stable string identifying the viewer) */
+    public void recordViewer(Long listingId, String viewerKey) {
+        HyperLogLog sketch = sketch(listingId);
+        boolean changed;
+        synchronized (sketch) {
+            changed = sketch.offer(HyperLogLog.hash(viewerKey));
+        }
+        // Repeat viewers rarely change a register, so most views cost no write at all
+        if (changed) dirty.add(listingId);
+    }
+
+    public long getUniqueViewers(Long listingId) {
+        HyperLogLog sketch = sketch(listingId);
+        synchronized (sketch) {
+            return sketch.estimate();
+        }
+    }
+
+    /** Estimated unique viewers per listing */
+    public Map<Long, Long> getUniqueViewers(Collection<Long> listingIds) {
+        loadMissing(listingIds);
+        Map<Long, Long> result = new HashMap<>();
+        for (Long id : listingIds) {
+            result.put(id, getUniqueViewers(id));
+        }
+        return result;
+    }
+
+    /** Estimated distinct people who viewed any of the listings (sketch union, not a sum) */
+    public long getUniqueViewersAcross(Collection<Long> listingIds) {
+        loadMissing(listingIds);
+        HyperLogLog union = new HyperLogLog(PRECISION);
+        for (Long id : listingIds) {
+            HyperLogLog sketch = sketch(id);
+            synchronized (sketch) {
+                union.merge(sketch);
+            }
+        }
+        return union.estimate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.getType() == ListingChangedEvent.Type.DELETED) {
+            sketches.remove(event.getListingId());
+            dirty.remove(event.getListingId());
+            sketchRepository.deleteById(event.getListingId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${listings.viewers.flush-interval:300000}")
+    public void flush() {
+        if (dirty.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        List<ListingViewerSketch> rows = new ArrayList<>();
+        for (Long id : new ArrayList<>(dirty)) {
+            dirty.remove(id);
+            HyperLogLog sketch = sketches.get(id);
+            if (sketch == null) continue;
+            byte[] bytes;
+            synchronized (sketch) {
+                bytes = sketch.toBytes();
+            }
+            rows.add(ListingViewerSketch.builder().listingId(id).registers(bytes).updatedAt(now).build());
+        }
+        try {
+            sketchRepository.saveAll(rows);
+        } catch (Exception e) {
+            log.warn("Failed to save {} viewer sketches: {}", rows.size(), e.getMessage());
+            rows.forEach(row -> dirty.add(row.getListingId()));
+        }
+    }
+
+    private HyperLogLog sketch(Long listingId) {
+        HyperLogLog sketch = sketches.get(listingId);
+        if (sketch != null) return sketch;
+        // Loaded outside the map so a slow query doesn't block other listings
+        HyperLogLog loaded = sketchRepository.findById(listingId)
+                .map(this::restore)
+                .orElseGet(() -> new HyperLogLog(PRECISION));
+        HyperLogLog existing = sketches.putIfAbsent(listingId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private void loadMissing(Collection<Long> listingIds) {
+        List<Long> missing = listingIds.stream().filter(id -> !sketches.containsKey(id)).toList();
+        if (missing.isEmpty()) return;
+        for (ListingViewerSketch row : sketchRepository.findAllById(missing)) {
+            sketches.putIfAbsent(row.getListingId(), restore(row));
+        }
+        for (Long id : missing) {
+            sketches.putIfAbsent(id, new HyperLogLog(PRECISION));
+        }
+    }
+
+    private HyperLogLog restore(ListingViewerSketch row) {
+        try {
+            return HyperLogLog.fromBytes(PRECISION, row.getRegisters());
+        } catch (IllegalArgumentException e) {
+            log.warn("Discarding unreadable viewer sketch for listing {}: {}", row.getListingId(), e.getMessage());
+            return new HyperLogLog(PRECISION);
+        }
+    }
+}
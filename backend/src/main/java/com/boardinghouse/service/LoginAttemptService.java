@@ -0,0 +1,265 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.exception.LoginBlockedException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts failed logins per email and per client IP over a sliding window.
+ * Once a key reaches its threshold, further attempts are rejected from memory
+ * before any user lookup or BCrypt verification happens.
+ *
+ * Each key holds a ring of per-bucket counters (the window is split into
+ * BUCKETS slices), so memory per key is constant and old failures roll off
+ * without timers. Idle keys are evicted once their window is empty.
+ */
+@Service
+@Slf4j
+public class LoginAttemptService {
+
+    private static final int BUCKETS = 15;
+    private static final String EMAIL_PREFIX = "email:";
+    private static final String IP_PREFIX = "ip:";
+
+    @Value("${security.login.max-failures-per-email:5}")
+    private int maxFailuresPerEmail;
+
+    @Value("${security.login.max-failures-per-ip:50}")
+    private int maxFailuresPerIp;
+
+    @Value("${security.login.window-seconds:900}")
+    private long windowSeconds;
+
+    @Value("${security.login.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    @Value("${security.login.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    private final Map<String, FailureWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * No tracked window can empty before this bucket (windows only expire later as they
+     * record failures, and new ones expire after it), so a full table skips its scan until then
+     */
+    private volatile long nextExpiryBucket;
+
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    /** Throws LoginBlockedException if the email or the IP is currently locked out */
+    public void checkAllowed(String email, String ip) {
+        long now = System.currentTimeMillis();
+        long retryAfter = Math.max(
+                retryAfterMillis(emailKey(email), maxFailuresPerEmail, now),
+                retryAfterMillis(ipKey(ip), maxFailuresPerIp, now));
+
+        if (retryAfter > 0) {
+            blocked.increment();
+            long seconds = Math.max(1, (retryAfter + 999) / 1000);
+            throw new LoginBlockedException("Too many failed login attempts. Try again in " + seconds + " seconds.", seconds);
+        }
+    }
+
+    public void recordFailure(String email, String ip) {
+        failures.increment();
+        long now = System.currentTimeMillis();
+        record(emailKey(email), now);
+        record(ipKey(ip), now);
+    }
+
+    /** A successful login clears the email counter; the IP counter keeps sliding */
+    public void recordSuccess(String email) {
+        windows.remove(emailKey(email));
+    }
+
+    /**
+     * Client address used for per-IP counting. Behind a reverse proxy that appends
+     * to X-Forwarded-For, the right-most entry is the one the proxy saw.
+     */
+    public String resolveClientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                String[] hops = forwarded.split(",");
+                return hops[hops.length - 1].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /** Keys that are currently over their threshold */
+    public List<Map<String, Object>> getLockouts() {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> lockouts = new ArrayList<>();
+        windows.forEach((key, window) -> {
+            int threshold = key.startsWith(EMAIL_PREFIX) ? maxFailuresPerEmail : maxFailuresPerIp;
+            long retryAfter = window.retryAfterMillis(bucketOf(now), threshold, bucketMillis(), now);
+            if (retryAfter > 0) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("key", key);
+                entry.put("failures", window.total(bucketOf(now)));
+                entry.put("retryAfterSeconds", (retryAfter + 999) / 1000);
+                lockouts.add(entry);
+            }
+        });
+        return lockouts;
+    }
+
+    /** Clear the counters for an email and/or IP; returns how many keys were removed */
+    public int clear(String email, String ip) {
+        int removed = 0;
+        if (email != null && windows.remove(emailKey(email)) != null) removed++;
+        if (ip != null && windows.remove(ipKey(ip)) != null) removed++;
+        if (removed > 0) {
+            log.info("Cleared login lockout for email={} ip={}", email, ip);
+        }
+        return removed;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedKeys", windows.size());
+        stats.put("failuresRecorded", failures.sum());
+        stats.put("attemptsBlocked", blocked.sum());
+        stats.put("failuresUntracked", untracked.sum());
+        stats.put("maxFailuresPerEmail", maxFailuresPerEmail);
+        stats.put("maxFailuresPerIp", maxFailuresPerIp);
+        stats.put("windowSeconds", windowSeconds);
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${security.login.eviction-interval:60000}")
+    public synchronized void evictExpired() {
+        long bucket = bucketOf(System.currentTimeMillis());
+        long earliest = bucket + BUCKETS;
+        for (Iterator<FailureWindow> it = windows.values().iterator(); it.hasNext(); ) {
+            FailureWindow window = it.next();
+            if (window.total(bucket) == 0) {
+                it.remove();
+            } else {
+                earliest = Math.min(earliest, window.expiryBucket());
+            }
+        }
+        nextExpiryBucket = earliest;
+    }
+
+    /** Scans only once some window may have emptied; concurrent callers don't repeat the scan */
+    private synchronized void evictIfDue(long bucket) {
+        if (bucket >= nextExpiryBucket) evictExpired();
+    }
+
+    private void record(String key, long now) {
+        if (key == null) return;
+        FailureWindow window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= maxTrackedKeys) {
+                long bucket = bucketOf(now);
+                if (bucket >= nextExpiryBucket) evictIfDue(bucket);
+                if (windows.size() >= maxTrackedKeys) {
+                    // Table is full of live entries; don't let an attacker grow it without bound
+                    untracked.increment();
+                    return;
+                }
+            }
+            window = windows.computeIfAbsent(key, k -> new FailureWindow(bucketOf(now)));
+        }
+        window.record(bucketOf(now));
+    }
+
+    private long retryAfterMillis(String key, int threshold, long now) {
+        if (key == null) return 0;
+        FailureWindow window = windows.get(key);
+        return window == null ? 0 : window.retryAfterMillis(bucketOf(now), threshold, bucketMillis(), now);
+    }
+
+    private long bucketMillis() {
+        return Math.max(1, windowSeconds * 1000 / BUCKETS);
+    }
+
+    private long bucketOf(long millis) {
+        return millis / bucketMillis();
+    }
+
+    private static String emailKey(String email) {
+        return email == null || email.isBlank() ? null : EMAIL_PREFIX + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipKey(String ip) {
+        return ip == null || ip.isBlank() ? null : IP_PREFIX + ip;
+    }
+
+    /** Ring of BUCKETS failure counts; head is the absolute index of the newest bucket */
+    private static final class FailureWindow {
+
+        private final int[] counts = new int[BUCKETS];
+        private long head;
+        private long lastFailure;
+
+        FailureWindow(long bucket) {
+            this.head = bucket;
+            this.lastFailure = bucket;
+        }
+
+        synchronized void record(long bucket) {
+            advance(bucket);
+            counts[slot(bucket)]++;
+            lastFailure = Math.max(lastFailure, bucket);
+        }
+
+        /** The bucket from which this window is empty, barring new failures */
+        synchronized long expiryBucket() {
+            return lastFailure + BUCKETS;
+        }
+
+        synchronized int total(long bucket) {
+            advance(bucket);
+            int sum = 0;
+            for (int count : counts) sum += count;
+            return sum;
+        }
+
+        /** Millis until the count falls below threshold, or 0 if it already is */
+        synchronized long retryAfterMillis(long bucket, int threshold, long bucketMillis, long now) {
+            advance(bucket);
+            int remaining = 0;
+            for (int count : counts) remaining += count;
+            if (remaining < threshold) return 0;
+
+            // Drop buckets oldest-first until we're under the threshold
+            for (long b = bucket - BUCKETS + 1; b <= bucket; b++) {
+                remaining -= counts[slot(b)];
+                if (remaining < threshold) {
+                    return Math.max(1, (b + BUCKETS) * bucketMillis - now);
+                }
+            }
+            return Math.max(1, (bucket + BUCKETS) * bucketMillis - now);
+        }
+
+        private void advance(long bucket) {
+            if (bucket <= head) return;
+            long steps = Math.min(bucket - head, BUCKETS);
+            for (long i = 1; i <= steps; i++) {
+                counts[slot(head + i)] = 0;
+            }
+            head = bucket;
+        }
+
+        private static int slot(long bucket) {
+            return (int) Math.floorMod(bucket, (long) BUCKETS);
+        }
+    }
+}
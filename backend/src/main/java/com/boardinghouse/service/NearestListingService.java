@@ -0,0 +1,84 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.ListingResponse;
+import com.boardinghouse.entity.Listing;
+import com.boardinghouse.repository.ListingRepository;
+import com.boardinghouse.util.SphereKdTree;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * k-nearest-neighbour lookup over approved listings.
+ *
+ * Keeps a SphereKdTree over each ApprovedListingPoints snapshot. Removals take
+ * effect immediately (the query skips ids no longer in the point set); additions
+ * and moves become visible with the next snapshot.
+ */
+@Service
+@Slf4j
+public class NearestListingService {
+
+    private final ListingRepository listingRepository;
+    private final ListingService listingService;
+    private final ApprovedListingPoints approvedListingPoints;
+
+    @Value("${listings.nearest.max-k:100}")
+    private int maxK;
+
+    private volatile Snapshot snapshot = new Snapshot(new long[0], new SphereKdTree(new double[0], new double[0], 0));
+
+    public NearestListingService(ListingRepository listingRepository, ListingService listingService,
+                                 ApprovedListingPoints approvedListingPoints) {
+        this.listingRepository = listingRepository;
+        this.listingService = listingService;
+        this.approvedListingPoints = approvedListingPoints;
+        approvedListingPoints.subscribeSnapshots(this::rebuild);
+    }
+
+    /**
+     * The k approved listings closest to the point, nearest first, with distanceKm set.
+     */
+    public List<ListingResponse> findNearest(double latitude, double longitude, int k) {
+        if (k < 1 || k > maxK) {
+            throw new RuntimeException("k must be between 1 and " + maxK);
+        }
+
+        Snapshot current = snapshot;
+        SphereKdTree.Neighbor[] neighbors = current.tree().nearest(latitude, longitude, k,
+                i -> approvedListingPoints.contains(current.listingIds()[i]));
+
+        List<Long> ids = new ArrayList<>(neighbors.length);
+        for (SphereKdTree.Neighbor neighbor : neighbors) {
+            ids.add(current.listingIds()[neighbor.index()]);
+        }
+        Map<Long, Listing> byId = listingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+
+        List<ListingResponse> results = new ArrayList<>(neighbors.length);
+        for (SphereKdTree.Neighbor neighbor : neighbors) {
+            Listing listing = byId.get(current.listingIds()[neighbor.index()]);
+            if (listing == null || listing.getStatus() != Listing.ListingStatus.APPROVED) continue;
+            ListingResponse response = listingService.toResponse(listing);
+            response.setDistanceKm(neighbor.distanceKm());
+            results.add(response);
+        }
+        return results;
+    }
+
+    private void rebuild(ApprovedListingPoints.Snapshot points) {
+        snapshot = new Snapshot(points.listingIds(),
+                new SphereKdTree(points.latitudes(), points.longitudes(), points.size()));
+        log.debug("Rebuilt nearest-listing index with {} points", points.size());
+    }
+
+    /** Tree plus the listing id for each of its point indexes, swapped together */
+    private record Snapshot(long[] listingIds, SphereKdTree tree) {
+    }
+}
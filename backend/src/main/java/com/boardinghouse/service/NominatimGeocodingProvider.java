@@ -0,0 +1,211 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.exception.GeocodingBusyException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InterruptedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geocoding through the public Nominatim (OpenStreetMap) API.
+ * Used as the fallback when the local gazetteer has no answer.
+ * Requests are spaced at least min-interval-ms apart (Nominatim allows 1 req/s),
+ * however many threads call in. Interactive lookups take the next free slot ahead
+ * of any waiting batch work (see GeocodingPriority), and batch requests are further
+ * spaced batch-min-interval-ms apart among themselves, so a large batch never
+ * queues autocomplete behind it. An interactive lookup whose slot would come later
+ * than max-wait-ms fails fast with GeocodingBusyException (503) instead of queueing,
+ * and every upstream call has connect and read timeouts.
+ */
+@Component
+@Order(2)
+@Slf4j
+public class NominatimGeocodingProvider implements GeocodingProvider {
+
+    private static final String NOMINATIM_SEARCH_URL = "https://nominatim.openstreetmap.org/search";
+    private static final String NOMINATIM_REVERSE_URL = "https://nominatim.openstreetmap.org/reverse";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final long minIntervalNanos;
+    private final long batchMinIntervalNanos;
+    private final long maxWaitNanos;
+
+    // Guarded by this
+    private long nextSlot = System.nanoTime();
+    private long nextBatchSlot = nextSlot;
+    private int interactiveWaiting;
+
+    public NominatimGeocodingProvider(ObjectMapper objectMapper,
+                                      @Value("${geocoding.nominatim.user-agent:boarding-house-backend}") String userAgent,
+                                      @Value("${geocoding.nominatim.min-interval-ms:1000}") long minIntervalMs,
+                                      @Value("${geocoding.nominatim.batch-min-interval-ms:2000}") long batchMinIntervalMs,
+                                      @Value("${geocoding.nominatim.max-wait-ms:3000}") long maxWaitMs,
+                                      @Value("${geocoding.nominatim.connect-timeout-ms:3000}") int connectTimeoutMs,
+                                      @Value("${geocoding.nominatim.read-timeout-ms:5000}") int readTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMs);
+        this.batchMinIntervalNanos = TimeUnit.MILLISECONDS.toNanos(batchMinIntervalMs);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        this.restTemplate = new RestTemplate(requestFactory);
+        // Nominatim's usage policy requires an identifying User-Agent
+        this.restTemplate.getInterceptors().add((request, body, execution) -> {
+            request.getHeaders().set(HttpHeaders.USER_AGENT, userAgent);
+            try {
+                acquireSlot(GeocodingPriority.isBatch());
+            } catch (InterruptedException e) {
+                // Cancelled while waiting: don't send the request
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a Nominatim request slot");
+            }
+            return execution.execute(request, body);
+        });
+    }
+
+    /**
+     * Wait until a request may be sent; batch callers also yield to any waiting
+     * interactive caller. Interactive callers give up once their slot would come
+     * after max-wait-ms.
+     */
+    private synchronized void acquireSlot(boolean batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        if (!batch) interactiveWaiting++;
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                long ready = batch ? Math.max(nextSlot, nextBatchSlot) : nextSlot;
+                if (!batch && ready - deadline > 0) {
+                    throw new GeocodingBusyException("Geocoding is busy, please try again shortly");
+                }
+                if (batch && interactiveWaiting > 0) {
+                    // Re-checked when an interactive caller takes its slot
+                    TimeUnit.NANOSECONDS.timedWait(this, Math.max(minIntervalNanos, ready - now));
+                } else if (now >= ready) {
+                    nextSlot = now + minIntervalNanos;
+                    if (batch) nextBatchSlot = now + batchMinIntervalNanos;
+                    notifyAll();
+                    return;
+                } else {
+                    TimeUnit.NANOSECONDS.timedWait(this, ready - now);
+                }
+            }
+        } finally {
+            if (!batch) interactiveWaiting--;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "nominatim";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public Map<String, Double> geocode(String address) {
+        Map<String, Double> result = new HashMap<>();
+
+        try {
+            String encodedAddress = URLEncoder.encode(address, StandardCharsets.UTF_8);
+            String url = String.format("%s?format=json&q=%s&limit=1", NOMINATIM_SEARCH_URL, encodedAddress);
+
+            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+
+            if (response.getBody() != null) {
+                JsonNode jsonArray = objectMapper.readTree(response.getBody());
+                if (jsonArray.isArray() && !jsonArray.isEmpty()) {
+                    JsonNode firstResult = jsonArray.get(0);
+                    result.put("latitude", firstResult.get("lat").asDouble());
+                    result.put("longitude", firstResult.get("lon").asDouble());
+                }
+            }
+        } catch (GeocodingBusyException e) {
+            throw e;
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                log.debug("Geocoding cancelled for address: {}", address);
+            } else {
+                log.error("Error geocoding address: {}", address, e);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<Map<String, Object>> search(String query, int limit) {
+        List<Map<String, Object>> results = new ArrayList<>();
+
+        try {
+            String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
+            String url = String.format("%s?format=json&q=%s&limit=%d&addressdetails=1", NOMINATIM_SEARCH_URL, encodedQuery, limit);
+
+            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+
+            if (response.getBody() != null) {
+                JsonNode jsonArray = objectMapper.readTree(response.getBody());
+                if (jsonArray.isArray()) {
+                    for (JsonNode node : jsonArray) {
+                        Map<String, Object> location = new HashMap<>();
+                        location.put("displayName", node.get("display_name").asText());
+                        location.put("latitude", node.get("lat").asDouble());
+                        location.put("longitude", node.get("lon").asDouble());
+                        location.put("type", node.has("type") ? node.get("type").asText() : "");
+                        location.put("importance", node.has("importance") ? node.get("importance").asDouble() : 0.0);
+                        results.add(location);
+                    }
+                }
+            }
+        } catch (GeocodingBusyException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error searching locations: {}", query, e);
+        }
+
+        return results;
+    }
+
+    @Override
+    public String reverse(double latitude, double longitude) {
+        try {
+            String url = String.format(Locale.ROOT, "%s?format=json&lat=%f&lon=%f", NOMINATIM_REVERSE_URL, latitude, longitude);
+
+            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+
+            if (response.getBody() != null) {
+                JsonNode jsonNode = objectMapper.readTree(response.getBody());
+                if (jsonNode.has("display_name")) {
+                    return jsonNode.get("display_name").asText();
+                }
+            }
+        } catch (GeocodingBusyException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error reverse geocoding: lat={}, lon={}", latitude, longitude, e);
+        }
+
+        return "";
+    }
+}
@@ -0,0 +1,145 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.NotificationResponse;
+import com.boardinghouse.entity.Notification;
+import com.boardinghouse.exception.ResourceNotFoundException;
+import com.boardinghouse.repository.ListingRepository;
+import com.boardinghouse.repository.NotificationRepository;
+import com.boardinghouse.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * In-app notifications. Writes go through a single background worker with a
+ * bounded queue, so whatever produced them (e.g. a listing approval) never waits
+ * on the inserts. If the queue is full the batch is dropped and logged.
+ */
+@Service
+@Slf4j
+public class NotificationService {
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final ListingRepository listingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor writer;
+
+    @Value("${notifications.max-limit:100}")
+    private int maxLimit;
+
+    public NotificationService(NotificationRepository notificationRepository, UserRepository userRepository,
+                               ListingRepository listingRepository, TransactionTemplate transactionTemplate,
+                               @Value("${notifications.queue-capacity:1000}") int queueCapacity) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.listingRepository = listingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+
+    /**
+     * Queues one notification per user about a listing; message by user id.
+     * Users who were already notified about the listing are skipped when the batch is written.
+     */
+    public void enqueueListingNotifications(Long listingId, Notification.NotificationType type,
+                                            Map<Long, String> messagesByUserId) {
+        if (messagesByUserId.isEmpty()) return;
+        try {
+            writer.execute(() -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(listingId, type, messagesByUserId));
+                } catch (Exception e) {
+                    log.warn("Failed to write {} notifications for listing {}: {}",
+                            messagesByUserId.size(), listingId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Notification queue full, dropped {} notifications for listing {}",
+                    messagesByUserId.size(), listingId);
+        }
+    }
+
+    private void write(Long listingId, Notification.NotificationType type, Map<Long, String> messagesByUserId) {
+        Set<Long> alreadyNotified = new HashSet<>(
+                notificationRepository.findNotifiedUserIds(listingId, messagesByUserId.keySet()));
+        List<Notification> notifications = new ArrayList<>();
+        messagesByUserId.forEach((userId, message) -> {
+            if (alreadyNotified.contains(userId)) return;
+            notifications.add(Notification.builder()
+                    .type(type)
+                    .user(userRepository.getReferenceById(userId))
+                    .listing(listingRepository.getReferenceById(listingId))
+                    .message(message)
+                    .build());
+        });
+        notificationRepository.saveAll(notifications);
+    }
+
+    public List<NotificationResponse> getNotifications(Long userId, boolean unreadOnly, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new RuntimeException("limit must be between 1 and " + maxLimit);
+        }
+        PageRequest page = PageRequest.of(0, limit);
+        List<Notification> notifications = unreadOnly
+                ? notificationRepository.findByUser_IdAndReadFalseOrderByCreatedAtDesc(userId, page)
+                : notificationRepository.findByUser_IdOrderByCreatedAtDesc(userId, page);
+        return notifications.stream().map(this::toResponse).collect(Collectors.toList());
+    }
+
+    public long countUnread(Long userId) {
+        return notificationRepository.countByUser_IdAndReadFalse(userId);
+    }
+
+    public NotificationResponse markRead(Long userId, Long notificationId) {
+        Notification notification = notificationRepository.findByIdAndUser_Id(notificationId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
+        notification.setRead(true);
+        return toResponse(notificationRepository.save(notification));
+    }
+
+    @Transactional
+    public int markAllRead(Long userId) {
+        return notificationRepository.markAllRead(userId);
+    }
+
+    private NotificationResponse toResponse(Notification notification) {
+        NotificationResponse response = new NotificationResponse();
+        response.setId(notification.getId());
+        response.setType(notification.getType().name());
+        if (notification.getListing() != null) {
+            response.setListingId(notification.getListing().getId());
+        }
+        response.setMessage(notification.getMessage());
+        response.setRead(notification.getRead());
+        response.setCreatedAt(notification.getCreatedAt() != null ? notification.getCreatedAt().toString() : null);
+        return response;
+    }
+}
@@ -19,6 +19,7 @@ public class ProfileService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
 
     /** Get profile by user ID */
     public UserProfileResponse getProfile(Long userId) {
@@ -102,6 +103,9 @@ public class ProfileService {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
 
+        // Sign out other sessions; they have to log in again with the new password
+        refreshTokenService.revokeAllForUser(userId);
+
         log.info("Password changed successfully for user ID: {}", userId);
     }
 
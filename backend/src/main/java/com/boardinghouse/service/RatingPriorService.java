@@ -0,0 +1,112 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.entity.Listing;
+import com.boardinghouse.repository.ListingRepository;
+import com.boardinghouse.repository.RatingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prior for Bayesian-averaged ratings: every listing is treated as having
+ * ratings.bayesian.prior-weight extra ratings at the catalog-wide mean, so a single
+ * 5-star review doesn't outrank two hundred 4.8s.
+ *
+ * RatingService keeps each listing's bayesianRating current as ratings arrive,
+ * using the prior held here. The catalog mean moves slowly, so it is recomputed
+ * every ratings.bayesian.recompute-interval ms, and all stored values are
+ * refreshed in one UPDATE when it shifts.
+ */
+@Service
+@Slf4j
+public class RatingPriorService {
+
+    private static final double MEAN_CHANGE_THRESHOLD = 0.005;
+    private static final int BACKFILL_CHUNK = 1000;
+
+    private final ListingRepository listingRepository;
+    private final RatingRepository ratingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ratings.bayesian.prior-weight:5}")
+    private double priorWeight;
+
+    @Value("${ratings.bayesian.default-mean:3.5}")
+    private double defaultMean;
+
+    private volatile double priorMean = Double.NaN;
+
+    public RatingPriorService(ListingRepository listingRepository, RatingRepository ratingRepository,
+                              TransactionTemplate transactionTemplate) {
+        this.listingRepository = listingRepository;
+        this.ratingRepository = ratingRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int backfilled = transactionTemplate.execute(status -> backfillHistograms());
+        if (backfilled > 0) {
+            log.info("Backfilled star histograms for {} listings", backfilled);
+        }
+        recompute();
+    }
+
+    /** Bayesian average for a listing with the given number of ratings and sum of stars */
+    public double bayesian(long starSum, int count) {
+        double mean = Double.isNaN(priorMean) ? defaultMean : priorMean;
+        return (priorWeight * mean + starSum) / (priorWeight + count);
+    }
+
+    public double getPriorMean() {
+        return Double.isNaN(priorMean) ? defaultMean : priorMean;
+    }
+
+    public double getPriorWeight() {
+        return priorWeight;
+    }
+
+    @Scheduled(fixedDelayString = "${ratings.bayesian.recompute-interval:3600000}",
+            initialDelayString = "${ratings.bayesian.recompute-interval:3600000}")
+    public void recompute() {
+        Double average = ratingRepository.getGlobalAverageRating();
+        double mean = average != null ? average : defaultMean;
+        if (!Double.isNaN(priorMean) && Math.abs(mean - priorMean) < MEAN_CHANGE_THRESHOLD) return;
+
+        priorMean = mean;
+        int updated = transactionTemplate.execute(status -> listingRepository.updateBayesianRatings(mean, priorWeight));
+        log.info("Rating prior set to mean {} with weight {}, refreshed {} listings",
+                Math.round(mean * 1000) / 1000.0, priorWeight, updated);
+    }
+
+    /** Fills in the star histogram for listings from before it existed */
+    private int backfillHistograms() {
+        List<Listing> listings = listingRepository.findByStars1IsNull();
+        if (listings.isEmpty()) return 0;
+
+        List<Long> ids = listings.stream().map(Listing::getId).toList();
+        Map<Long, int[]> histograms = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BACKFILL_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + BACKFILL_CHUNK));
+            for (Object[] row : ratingRepository.countStarsByListingIds(chunk)) {
+                int stars = (Integer) row[1];
+                if (stars >= 1 && stars <= 5) {
+                    histograms.computeIfAbsent((Long) row[0], id -> new int[5])[stars - 1] = ((Long) row[2]).intValue();
+                }
+            }
+        }
+        for (Long id : ids) {
+            int[] histogram = histograms.getOrDefault(id, new int[5]);
+            listingRepository.updateStarHistogram(id, histogram[0], histogram[1], histogram[2], histogram[3], histogram[4]);
+        }
+        return ids.size();
+    }
+}
@@ -1,13 +1,21 @@
 package com.boardinghouse.service;
 
+import com.boardinghouse.dto.CursorPage;
 import com.boardinghouse.dto.RatingRequest;
 import com.boardinghouse.dto.RatingResponse;
 import com.boardinghouse.entity.Listing;
 import com.boardinghouse.entity.Rating;
 import com.boardinghouse.entity.User;
+import com.boardinghouse.event.ListingChangedEvent;
+import com.boardinghouse.exception.ResourceNotFoundException;
+import com.boardinghouse.event.RatingChangedEvent;
 import com.boardinghouse.repository.ListingRepository;
 import com.boardinghouse.repository.RatingRepository;
+import com.boardinghouse.repository.RatingRow;
+import com.boardinghouse.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,13 +28,16 @@ import java.util.stream.Collectors;
 public class RatingService {
 
     private static final double DECIMAL_ROUNDING_FACTOR = 10.0;
+    private static final int MAX_PAGE_SIZE = 50;
     
     private final RatingRepository ratingRepository;
     private final ListingRepository listingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RatingPriorService ratingPriorService;
 
     @Transactional
     public Rating createOrUpdateRating(RatingRequest request, User user) {
-        Listing listing = listingRepository.findById(request.getListingId())
+        Listing listing = listingRepository.findByIdForUpdate(request.getListingId())
                 .orElseThrow(() -> new RuntimeException("Listing not found"));
 
         // Validate rating value
@@ -37,9 +48,11 @@ public class RatingService {
         Optional<Rating> existingRating = ratingRepository.findByUser_IdAndListing_Id(user.getId(), request.getListingId());
 
         Rating rating;
+        Integer previousStars = null;
         if (existingRating.isPresent()) {
             // Update existing rating
             rating = existingRating.get();
+            previousStars = rating.getRating();
             rating.setRating(request.getRating());
             rating.setReview(request.getReview());
         } else {
@@ -54,8 +67,15 @@ public class RatingService {
 
         Rating savedRating = ratingRepository.save(rating);
 
-        // Update listing's average rating and review count
-        updateListingRatingStats(listing.getId());
+        // Update listing's histogram, average rating and review count
+        if (listing.getStars1() == null) {
+            updateListingRatingStats(listing.getId());
+        } else {
+            if (previousStars != null) addStars(listing, previousStars, -1);
+            addStars(listing, savedRating.getRating(), 1);
+            applyRatingStats(listing);
+        }
+        eventPublisher.publishEvent(new RatingChangedEvent(user.getId(), listing.getId(), previousStars, savedRating.getRating()));
 
         return savedRating;
     }
@@ -68,6 +88,36 @@ public class RatingService {
         return ratingRepository.findByListing_IdOrderByCreatedAtDesc(listingId);
     }
 
+    /** All of a listing's ratings, newest first, authors joined in the one query */
+    public List<RatingResponse> getRatingResponses(Long listingId) {
+        return ratingRepository.findRowsByListingId(listingId, Integer.MAX_VALUE, Pageable.unpaged()).stream()
+                .map(row -> toResponse(row, Integer.MAX_VALUE))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * One page of a listing's ratings, newest first, after the given cursor.
+     * With reviewLength set, reviews are cut to that many characters in the query
+     * and the rest can be fetched with getFullReview.
+     */
+    public CursorPage<RatingResponse> getRatingsPage(Long listingId, String cursor, int limit, Integer reviewLength) {
+        if (reviewLength != null && reviewLength < 1) {
+            throw new RuntimeException("reviewLength must be positive");
+        }
+        int maxLength = reviewLength != null ? reviewLength : Integer.MAX_VALUE;
+        return KeysetCursor.page(cursor, limit, MAX_PAGE_SIZE,
+                (after, page) -> after == null
+                        ? ratingRepository.findRowsByListingId(listingId, maxLength, page)
+                        : ratingRepository.findRowsByListingIdAfter(listingId, after.createdAt(), after.id(), maxLength, page),
+                row -> toResponse(row, maxLength));
+    }
+
+    public String getFullReview(Long listingId, Long ratingId) {
+        return ratingRepository.findByIdAndListing_Id(ratingId, listingId)
+                .map(Rating::getReview)
+                .orElseThrow(() -> new ResourceNotFoundException("Rating not found"));
+    }
+
     public Double getAverageRating(Long listingId) {
         Double avg = ratingRepository.getAverageRatingByListingId(listingId);
         return avg != null ? Math.round(avg * DECIMAL_ROUNDING_FACTOR) / DECIMAL_ROUNDING_FACTOR : 0.0;
@@ -78,17 +128,63 @@ public class RatingService {
         return count != null ? count : 0;
     }
 
+    /** Recomputes the listing's histogram and rating aggregates from its ratings */
     @Transactional
     public void updateListingRatingStats(Long listingId) {
         Listing listing = listingRepository.findById(listingId)
                 .orElseThrow(() -> new RuntimeException("Listing not found"));
 
-        Double avgRating = getAverageRating(listingId);
-        Integer reviewCount = getReviewCount(listingId);
+        int[] histogram = new int[5];
+        for (Object[] row : ratingRepository.countStarsByListingIds(List.of(listingId))) {
+            int stars = (Integer) row[1];
+            if (stars >= 1 && stars <= 5) histogram[stars - 1] = ((Long) row[2]).intValue();
+        }
+        listing.setStars1(histogram[0]);
+        listing.setStars2(histogram[1]);
+        listing.setStars3(histogram[2]);
+        listing.setStars4(histogram[3]);
+        listing.setStars5(histogram[4]);
+        applyRatingStats(listing);
+    }
+
+    /** Derives rating, reviews and bayesianRating from the histogram, then writes them with one targeted update */
+    private void applyRatingStats(Listing listing) {
+        int[] histogram = histogram(listing);
+        int count = 0;
+        long starSum = 0;
+        for (int i = 0; i < 5; i++) {
+            count += histogram[i];
+            starSum += (long) (i + 1) * histogram[i];
+        }
+
+        listing.setReviews(count);
+        listing.setRating(count > 0 ? Math.round((double) starSum / count * DECIMAL_ROUNDING_FACTOR) / DECIMAL_ROUNDING_FACTOR : 0.0);
+        listing.setBayesianRating(ratingPriorService.bayesian(starSum, count));
+        listingRepository.updateRatingStats(listing.getId(), histogram[0], histogram[1], histogram[2], histogram[3],
+                histogram[4], listing.getRating(), count, listing.getBayesianRating());
+        eventPublisher.publishEvent(new ListingChangedEvent(listing.getId(), ListingChangedEvent.Type.RATED, listing));
+    }
 
-        listing.setRating(avgRating);
-        listing.setReviews(reviewCount);
-        listingRepository.save(listing);
+    /** Counts of 1..5 star ratings; null (not yet backfilled) reads as 0 */
+    public static int[] histogram(Listing listing) {
+        return new int[]{
+                listing.getStars1() != null ? listing.getStars1() : 0,
+                listing.getStars2() != null ? listing.getStars2() : 0,
+                listing.getStars3() != null ? listing.getStars3() : 0,
+                listing.getStars4() != null ? listing.getStars4() : 0,
+                listing.getStars5() != null ? listing.getStars5() : 0
+        };
+    }
+
+    private static void addStars(Listing listing, int stars, int delta) {
+        switch (stars) {
+            case 1 -> listing.setStars1(Math.max(0, listing.getStars1() + delta));
+            case 2 -> listing.setStars2(Math.max(0, listing.getStars2() + delta));
+            case 3 -> listing.setStars3(Math.max(0, listing.getStars3() + delta));
+            case 4 -> listing.setStars4(Math.max(0, listing.getStars4() + delta));
+            case 5 -> listing.setStars5(Math.max(0, listing.getStars5() + delta));
+            default -> throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
     }
 
     public RatingResponse toResponse(Rating rating) {
@@ -109,6 +205,22 @@ public class RatingService {
         return response;
     }
 
+    private RatingResponse toResponse(RatingRow row, int maxLength) {
+        RatingResponse response = new RatingResponse();
+        response.setId(row.getId());
+        response.setRating(row.getStars());
+        response.setReview(row.getReview());
+        response.setReviewTruncated(row.getReviewLength() != null && row.getReviewLength() > maxLength);
+        response.setCreatedAt(row.getCreatedAt() != null ? row.getCreatedAt().toString() : null);
+        response.setUpdatedAt(row.getUpdatedAt() != null ? row.getUpdatedAt().toString() : null);
+
+        RatingResponse.UserInfo userInfo = new RatingResponse.UserInfo();
+        userInfo.setId(row.getUserId());
+        userInfo.setName(row.getUserName());
+        response.setUser(userInfo);
+        return response;
+    }
+
     public List<RatingResponse> toResponseList(List<Rating> ratings) {
         return ratings.stream().map(this::toResponse).collect(Collectors.toList());
     }
@@ -0,0 +1,340 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.ListingResponse;
+import com.boardinghouse.entity.Listing;
+import com.boardinghouse.entity.User;
+import com.boardinghouse.event.ListingChangedEvent;
+import com.boardinghouse.repository.FavoriteRepository;
+import com.boardinghouse.repository.ListingRepository;
+import com.boardinghouse.repository.RatingRepository;
+import com.boardinghouse.util.GeoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Home-screen recommendations from the student's profile.
+ *
+ * Students are grouped into segments by (preferredLocation, roomType, budget band).
+ * Each segment keeps its best `candidates-per-segment` approved listings by a
+ * profile-independent base score (rating, recency, popularity). Segments are built
+ * from an in-memory catalog the first time they are asked for, then patched in
+ * place on every change ApprovedListingPoints reports. A segment that was cut at
+ * capacity and loses a candidate (or sees one score lower) is dropped and rebuilt
+ * on its next request, so the next-best listing from the catalog takes the place.
+ * Building and patching are serialized so a build never misses a change. A request
+ * only re-ranks its segment's candidates against the student's own favorites and
+ * ratings.
+ */
+@Service
+@Slf4j
+public class RecommendationService {
+
+    private static final double RATING_PRIOR_MEAN = 3.5;
+    private static final double RATING_PRIOR_WEIGHT = 5;
+    private static final double RECENCY_HALF_LIFE_DAYS = 30;
+    private static final double POPULARITY_SATURATION_VIEWS = 1000;
+
+    private final ListingRepository listingRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final RatingRepository ratingRepository;
+    private final ListingService listingService;
+
+    @Value("${recommendations.candidates-per-segment:200}")
+    private int candidatesPerSegment;
+
+    @Value("${recommendations.max-segments:1000}")
+    private int maxSegments;
+
+    @Value("${recommendations.budget-band:1000}")
+    private int budgetBand;
+
+    @Value("${recommendations.max-limit:50}")
+    private int maxLimit;
+
+    /** Every approved listing, reduced to what segment matching and scoring need */
+    private final Map<Long, Item> catalog = new ConcurrentHashMap<>();
+    private final Map<SegmentKey, Segment> segments = new ConcurrentHashMap<>();
+
+    public RecommendationService(ListingRepository listingRepository, FavoriteRepository favoriteRepository,
+                                 RatingRepository ratingRepository, ListingService listingService,
+                                 ApprovedListingPoints approvedListingPoints) {
+        this.listingRepository = listingRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.ratingRepository = ratingRepository;
+        this.listingService = listingService;
+        approvedListingPoints.subscribeChanges(this::onListingChanged);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        for (Listing listing : listingRepository.findByStatus(Listing.ListingStatus.APPROVED)) {
+            catalog.put(listing.getId(), Item.of(listing));
+        }
+        segments.clear();
+        log.info("Recommendation catalog loaded with {} listings", catalog.size());
+    }
+
+    /** Ratings feed the base score, but ApprovedListingPoints doesn't pass them on */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingRated(ListingChangedEvent event) {
+        if (event.getType() == ListingChangedEvent.Type.RATED && event.isVisible()) {
+            onListingChanged(event.getListingId(), event.getListing());
+        }
+    }
+
+    private synchronized void onListingChanged(Long listingId, Listing listing) {
+        Item item = listing != null ? Item.of(listing) : null;
+        if (item != null) {
+            catalog.put(item.id, item);
+        } else {
+            catalog.remove(listingId);
+        }
+        for (SegmentKey key : segments.keySet()) {
+            segments.computeIfPresent(key, (k, segment) -> {
+                boolean matches = item != null && k.matches(item, budgetBand);
+                int at = segment.indexOf(listingId);
+                if (segment.truncated() && at >= 0 && (!matches || item.baseScore < segment.scores()[at])) {
+                    // Whatever should fill the gap is only in the catalog; rebuild on next use
+                    return null;
+                }
+                Segment updated = segment.without(listingId);
+                return matches ? updated.with(item, candidatesPerSegment) : updated;
+            });
+        }
+    }
+
+    public List<ListingResponse> recommend(User user, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new RuntimeException("limit must be between 1 and " + maxLimit);
+        }
+
+        Segment segment = segmentFor(SegmentKey.of(user, budgetBand));
+        Long[] ranked = personalize(user.getId(), segment, limit);
+
+        Map<Long, Listing> byId = listingRepository.findAllById(Arrays.asList(ranked)).stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+        List<ListingResponse> results = new ArrayList<>(ranked.length);
+        for (Long id : ranked) {
+            Listing listing = byId.get(id);
+            if (listing != null && listing.getStatus() == Listing.ListingStatus.APPROVED) {
+                results.add(listingService.toResponse(listing));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Re-ranks segment candidates for one student. Listings they already favorited or
+     * rated are left out; candidates near or alike to what they liked (favorites,
+     * 4-5 stars) move up, and ones near what they rated 1-2 stars move down.
+     */
+    private Long[] personalize(Long userId, Segment segment, int limit) {
+        Set<Long> seen = new HashSet<>(favoriteRepository.findListingIdsByUserId(userId));
+        List<Item> liked = new ArrayList<>();
+        List<Item> disliked = new ArrayList<>();
+        for (Long id : seen) {
+            Item item = catalog.get(id);
+            if (item != null) liked.add(item);
+        }
+        for (Object[] row : ratingRepository.findListingRatingsByUserId(userId)) {
+            Long listingId = (Long) row[0];
+            int stars = (Integer) row[1];
+            Item item = catalog.get(listingId);
+            if (item != null && !seen.contains(listingId)) {
+                if (stars >= 4) liked.add(item);
+                else if (stars <= 2) disliked.add(item);
+            }
+            seen.add(listingId);
+        }
+
+        List<Map.Entry<Long, Double>> scored = new ArrayList<>(segment.items.length);
+        for (int i = 0; i < segment.items.length; i++) {
+            Item candidate = segment.items[i];
+            if (seen.contains(candidate.id)) continue;
+            double affinity = 0;
+            for (Item like : liked) {
+                if (candidate.roomType != null && candidate.roomType.equals(like.roomType)) affinity += 0.05;
+                if (candidate.isWithinKm(like, 1.5)) affinity += 0.1;
+            }
+            double aversion = 0;
+            for (Item dislike : disliked) {
+                if (candidate.isWithinKm(dislike, 1.0)) aversion += 0.1;
+            }
+            double score = segment.scores[i] + Math.min(0.3, affinity) - Math.min(0.2, aversion);
+            scored.add(Map.entry(candidate.id, score));
+        }
+        scored.sort(Map.Entry.<Long, Double>comparingByValue().reversed());
+        return scored.stream().limit(limit).map(Map.Entry::getKey).toArray(Long[]::new);
+    }
+
+    private Segment segmentFor(SegmentKey key) {
+        Segment segment = segments.get(key);
+        if (segment != null) return segment;
+
+        return buildSegment(key);
+    }
+
+    /** Serialized with onListingChanged, so the catalog can't change under a build */
+    private synchronized Segment buildSegment(SegmentKey key) {
+        Segment segment = segments.get(key);
+        if (segment != null) return segment;
+
+        if (segments.size() >= maxSegments) {
+            // Rarely hit; dropping everything is cheaper than tracking recency per segment
+            log.info("Recommendation segment cache full ({}), clearing", segments.size());
+            segments.clear();
+        }
+        List<Item> matches = catalog.values().stream()
+                .filter(item -> key.matches(item, budgetBand))
+                .sorted(Comparator.comparingDouble((Item item) -> item.baseScore).reversed())
+                .limit(candidatesPerSegment + 1L)
+                .toList();
+        boolean truncated = matches.size() > candidatesPerSegment;
+        Item[] items = matches.stream().limit(candidatesPerSegment).toArray(Item[]::new);
+        double[] scores = new double[items.length];
+        for (int i = 0; i < items.length; i++) scores[i] = items[i].baseScore;
+        segment = new Segment(items, scores, truncated);
+        segments.put(key, segment);
+        return segment;
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Profile fields that pick a candidate set; null means "any" */
+    private record SegmentKey(String location, String roomType, int band) {
+
+        static SegmentKey of(User user, int budgetBand) {
+            Integer budget = user.getBudget();
+            int band = budget != null && budget > 0 ? budget / Math.max(1, budgetBand) : -1;
+            return new SegmentKey(normalize(user.getPreferredLocation()), normalize(user.getRoomType()), band);
+        }
+
+        boolean matches(Item item, int budgetBand) {
+            if (location != null && !item.location.contains(location)) return false;
+            if (roomType != null && !roomType.equals(item.roomType)) return false;
+            if (band >= 0 && item.price != null) {
+                // Top of the band, with a little headroom
+                return item.price <= (band + 1) * (double) budgetBand * 1.1;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Candidates sorted by base score, best first; updates return a copy. truncated
+     * means the catalog had more matches than fit when it was built (or since).
+     */
+    private record Segment(Item[] items, double[] scores, boolean truncated) {
+
+        int indexOf(Long listingId) {
+            for (int i = 0; i < items.length; i++) {
+                if (items[i].id.equals(listingId)) return i;
+            }
+            return -1;
+        }
+
+        Segment without(Long listingId) {
+            for (int i = 0; i < items.length; i++) {
+                if (items[i].id.equals(listingId)) {
+                    Item[] nextItems = new Item[items.length - 1];
+                    double[] nextScores = new double[items.length - 1];
+                    System.arraycopy(items, 0, nextItems, 0, i);
+                    System.arraycopy(items, i + 1, nextItems, i, nextItems.length - i);
+                    System.arraycopy(scores, 0, nextScores, 0, i);
+                    System.arraycopy(scores, i + 1, nextScores, i, nextScores.length - i);
+                    return new Segment(nextItems, nextScores, truncated);
+                }
+            }
+            return this;
+        }
+
+        Segment with(Item item, int capacity) {
+            int at = 0;
+            while (at < items.length && scores[at] >= item.baseScore) at++;
+            if (at >= capacity) return truncated ? this : new Segment(items, scores, true);
+
+            int length = Math.min(items.length + 1, capacity);
+            Item[] nextItems = new Item[length];
+            double[] nextScores = new double[length];
+            System.arraycopy(items, 0, nextItems, 0, at);
+            System.arraycopy(scores, 0, nextScores, 0, at);
+            nextItems[at] = item;
+            nextScores[at] = item.baseScore;
+            System.arraycopy(items, at, nextItems, at + 1, length - at - 1);
+            System.arraycopy(scores, at, nextScores, at + 1, length - at - 1);
+            return new Segment(nextItems, nextScores, truncated || items.length + 1 > capacity);
+        }
+    }
+
+    private static final class Item {
+
+        final Long id;
+        final String location;
+        final String roomType;
+        final Double price;
+        final Double latitude;
+        final Double longitude;
+        final double baseScore;
+
+        private Item(Listing l) {
+            this.id = l.getId();
+            String loc = normalize(l.getLocation());
+            String schools = normalize(l.getNearbySchools());
+            this.location = (loc != null ? loc : "") + " " + (schools != null ? schools : "");
+            this.roomType = normalize(l.getRoomType());
+            this.price = l.getPrice();
+            this.latitude = l.getLatitude();
+            this.longitude = l.getLongitude();
+            this.baseScore = baseScore(l);
+        }
+
+        static Item of(Listing listing) {
+            return new Item(listing);
+        }
+
+        boolean isWithinKm(Item other, double km) {
+            return latitude != null && longitude != null && other.latitude != null && other.longitude != null
+                    && GeoUtils.haversineKm(latitude, longitude, other.latitude, other.longitude) <= km;
+        }
+
+        /** 0..1 blend of shrunk rating, recency and view popularity */
+        private static double baseScore(Listing l) {
+            int reviews = l.getReviews() != null ? l.getReviews() : 0;
+            double rating = l.getRating() != null ? l.getRating() : 0;
+            double bayesian = l.getBayesianRating() != null
+                    ? l.getBayesianRating()
+                    : (RATING_PRIOR_WEIGHT * RATING_PRIOR_MEAN + rating * reviews) / (RATING_PRIOR_WEIGHT + reviews);
+
+            double recency = 0;
+            if (l.getCreatedAt() != null) {
+                double ageDays = Math.max(0, Duration.between(l.getCreatedAt(), LocalDateTime.now()).toHours() / 24.0);
+                recency = Math.pow(0.5, ageDays / RECENCY_HALF_LIFE_DAYS);
+            }
+
+            int views = l.getViewCount() != null ? l.getViewCount() : 0;
+            double popularity = Math.min(1, Math.log1p(views) / Math.log1p(POPULARITY_SATURATION_VIEWS));
+
+            return 0.5 * (bayesian - 1) / 4 + 0.25 * recency + 0.25 * popularity;
+        }
+    }
+}
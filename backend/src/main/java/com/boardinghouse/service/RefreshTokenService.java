@@ -0,0 +1,132 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.entity.RefreshToken;
+import com.boardinghouse.entity.User;
+import com.boardinghouse.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens. Each refresh consumes the presented
+ * token and returns a new one from the same family; presenting an already-rotated
+ * token is treated as theft and revokes the whole family.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private long refreshExpiration;
+
+    public record Rotation(User user, String refreshToken) {}
+
+    /** Start a new token family for a fresh login */
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for a new one.
+     * Returns empty if the token is unknown, expired, revoked or belongs to a disabled account.
+     */
+    @Transactional
+    public Optional<Rotation> rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return Optional.empty();
+        }
+
+        // Row lock: a concurrent refresh of the same token waits, then sees it revoked
+        RefreshToken token = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken)).orElse(null);
+        if (token == null) {
+            return Optional.empty();
+        }
+
+        if (token.getRevoked()) {
+            log.warn("Refresh token reuse detected for user ID: {}, revoking family", token.getUser().getId());
+            refreshTokenRepository.revokeFamily(token.getFamilyId());
+            return Optional.empty();
+        }
+
+        if (token.getExpiresAt().isBefore(LocalDateTime.now()) || !token.getUser().getActive()) {
+            return Optional.empty();
+        }
+
+        token.setRevoked(true);
+        refreshTokenRepository.save(token);
+
+        String next = issue(token.getUser(), token.getFamilyId());
+        return Optional.of(new Rotation(token.getUser(), next));
+    }
+
+    /** Revoke the family the given token belongs to (logout) */
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    /** Revoke every refresh token of a user (e.g. after a password change) */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(User user, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration)))
+                .revoked(false)
+                .build());
+
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
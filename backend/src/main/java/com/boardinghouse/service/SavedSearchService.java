@@ -0,0 +1,289 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.SavedSearchRequest;
+import com.boardinghouse.dto.SavedSearchResponse;
+import com.boardinghouse.entity.Listing;
+import com.boardinghouse.entity.Notification;
+import com.boardinghouse.entity.SavedSearch;
+import com.boardinghouse.entity.User;
+import com.boardinghouse.event.ListingChangedEvent;
+import com.boardinghouse.exception.ResourceNotFoundException;
+import com.boardinghouse.repository.SavedSearchRepository;
+import com.boardinghouse.util.GeoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Students' saved searches, matched in reverse: instead of each student re-running
+ * their searches, every newly approved listing is run against all saved searches
+ * at once and the owners of matching ones get a notification.
+ *
+ * Searches are compiled into an in-memory percolator. A search with text is filed
+ * under one trigram of its text, the one rarest across all searches; a listing only
+ * has to check searches filed under trigrams its own text contains, and those are
+ * then verified in full. Searches with no (or very short) text sit in a small list
+ * that every listing is checked against.
+ */
+@Service
+@Slf4j
+public class SavedSearchService {
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final NotificationService notificationService;
+
+    @Value("${saved-searches.max-per-student:20}")
+    private int maxPerStudent;
+
+    private final Map<Long, Compiled> compiled = new ConcurrentHashMap<>();
+    private volatile Percolator percolator = Percolator.EMPTY;
+
+    public SavedSearchService(SavedSearchRepository savedSearchRepository, NotificationService notificationService) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.notificationService = notificationService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (SavedSearch search : savedSearchRepository.findAllWithNotifyEnabled()) {
+            compiled.put(search.getId(), Compiled.of(search));
+        }
+        rebuild();
+        log.info("Compiled {} saved searches for listing matching", compiled.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.getType() != ListingChangedEvent.Type.APPROVED) return;
+
+        Listing listing = event.getListing();
+        Map<Long, String> messages = new LinkedHashMap<>();
+        for (Compiled search : percolator.match(listing)) {
+            messages.putIfAbsent(search.userId,
+                    "New listing matches your saved search \"" + search.name + "\": " + listing.getTitle());
+        }
+        if (!messages.isEmpty()) {
+            log.debug("Listing {} matched saved searches of {} students", listing.getId(), messages.size());
+            notificationService.enqueueListingNotifications(listing.getId(),
+                    Notification.NotificationType.SAVED_SEARCH_MATCH, messages);
+        }
+    }
+
+    public List<SavedSearchResponse> getByStudent(Long studentId) {
+        return savedSearchRepository.findByStudent_IdOrderByCreatedAtDesc(studentId).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    public SavedSearchResponse create(SavedSearchRequest request, User student) {
+        if (savedSearchRepository.countByStudent_Id(student.getId()) >= maxPerStudent) {
+            throw new RuntimeException("You can have at most " + maxPerStudent + " saved searches");
+        }
+        SavedSearch search = SavedSearch.builder().student(student).build();
+        apply(search, request);
+        return toResponse(save(search));
+    }
+
+    public SavedSearchResponse update(Long id, SavedSearchRequest request, User student) {
+        SavedSearch search = getOwned(id, student.getId());
+        apply(search, request);
+        return toResponse(save(search));
+    }
+
+    public void delete(Long id, User student) {
+        SavedSearch search = getOwned(id, student.getId());
+        savedSearchRepository.delete(search);
+        if (compiled.remove(id) != null) {
+            rebuild();
+        }
+    }
+
+    private SavedSearch getOwned(Long id, Long studentId) {
+        return savedSearchRepository.findByIdAndStudent_Id(id, studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Saved search not found"));
+    }
+
+    private SavedSearch save(SavedSearch search) {
+        SavedSearch saved = savedSearchRepository.save(search);
+        if (Boolean.TRUE.equals(saved.getNotify())) {
+            compiled.put(saved.getId(), Compiled.of(saved));
+        } else {
+            compiled.remove(saved.getId());
+        }
+        rebuild();
+        return saved;
+    }
+
+    private void apply(SavedSearch search, SavedSearchRequest request) {
+        boolean hasPoint = request.getLatitude() != null && request.getLongitude() != null;
+        if ((request.getLatitude() == null) != (request.getLongitude() == null)
+                || (request.getRadiusKm() != null) != hasPoint) {
+            throw new RuntimeException("latitude, longitude and radiusKm must be given together");
+        }
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice() > request.getMaxPrice()) {
+            throw new RuntimeException("minPrice cannot be greater than maxPrice");
+        }
+        String query = request.getQuery() != null && !request.getQuery().isBlank() ? request.getQuery().trim() : null;
+        String roomType = request.getRoomType() != null && !request.getRoomType().isBlank() ? request.getRoomType().trim() : null;
+        if (query == null && roomType == null && request.getMinPrice() == null
+                && request.getMaxPrice() == null && !hasPoint) {
+            throw new RuntimeException("A saved search needs at least one criterion");
+        }
+
+        search.setName(request.getName().trim());
+        search.setQuery(query);
+        search.setRoomType(roomType);
+        search.setMinPrice(request.getMinPrice());
+        search.setMaxPrice(request.getMaxPrice());
+        search.setLatitude(request.getLatitude());
+        search.setLongitude(request.getLongitude());
+        search.setRadiusKm(request.getRadiusKm());
+        search.setNotify(request.getNotify() != null ? request.getNotify() : true);
+    }
+
+    private synchronized void rebuild() {
+        percolator = Percolator.build(compiled.values());
+    }
+
+    private SavedSearchResponse toResponse(SavedSearch search) {
+        SavedSearchResponse response = new SavedSearchResponse();
+        response.setId(search.getId());
+        response.setName(search.getName());
+        response.setQuery(search.getQuery());
+        response.setRoomType(search.getRoomType());
+        response.setMinPrice(search.getMinPrice());
+        response.setMaxPrice(search.getMaxPrice());
+        response.setLatitude(search.getLatitude());
+        response.setLongitude(search.getLongitude());
+        response.setRadiusKm(search.getRadiusKm());
+        response.setNotify(search.getNotify());
+        response.setCreatedAt(search.getCreatedAt() != null ? search.getCreatedAt().toString() : null);
+        return response;
+    }
+
+    /** Lowercase with runs of whitespace collapsed, so text and queries compare the same way */
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /** A saved search reduced to what matching needs */
+    private static final class Compiled {
+
+        final Long userId;
+        final String name;
+        final String query;
+        final String roomType;
+        final Double minPrice;
+        final Double maxPrice;
+        final Double latitude;
+        final Double longitude;
+        final Double radiusKm;
+
+        private Compiled(SavedSearch s) {
+            this.userId = s.getStudent().getId();
+            this.name = s.getName();
+            this.query = normalize(s.getQuery());
+            this.roomType = s.getRoomType() != null ? normalize(s.getRoomType()) : null;
+            this.minPrice = s.getMinPrice();
+            this.maxPrice = s.getMaxPrice();
+            this.latitude = s.getLatitude();
+            this.longitude = s.getLongitude();
+            this.radiusKm = s.getRadiusKm();
+        }
+
+        static Compiled of(SavedSearch search) {
+            return new Compiled(search);
+        }
+
+        boolean matches(Listing l, String text) {
+            if (!query.isEmpty() && !text.contains(query)) return false;
+            if (roomType != null && !roomType.equals(normalize(l.getRoomType()))) return false;
+            if (minPrice != null && (l.getPrice() == null || l.getPrice() < minPrice)) return false;
+            if (maxPrice != null && (l.getPrice() == null || l.getPrice() > maxPrice)) return false;
+            if (radiusKm != null) {
+                if (l.getLatitude() == null || l.getLongitude() == null) return false;
+                return GeoUtils.haversineKm(latitude, longitude, l.getLatitude(), l.getLongitude()) <= radiusKm;
+            }
+            return true;
+        }
+    }
+
+    /** Immutable matching index, rebuilt whenever a saved search changes */
+    private static final class Percolator {
+
+        static final Percolator EMPTY = new Percolator(Map.of(), List.of());
+
+        final Map<String, List<Compiled>> byTrigram;
+        final List<Compiled> unanchored;
+
+        private Percolator(Map<String, List<Compiled>> byTrigram, List<Compiled> unanchored) {
+            this.byTrigram = byTrigram;
+            this.unanchored = unanchored;
+        }
+
+        static Percolator build(Iterable<Compiled> searches) {
+            Map<String, Integer> frequency = new HashMap<>();
+            for (Compiled search : searches) {
+                for (String gram : trigrams(search.query)) {
+                    frequency.merge(gram, 1, Integer::sum);
+                }
+            }
+
+            Map<String, List<Compiled>> byTrigram = new HashMap<>();
+            List<Compiled> unanchored = new ArrayList<>();
+            for (Compiled search : searches) {
+                String anchor = null;
+                for (String gram : trigrams(search.query)) {
+                    if (anchor == null || frequency.get(gram) < frequency.get(anchor)) anchor = gram;
+                }
+                if (anchor != null) {
+                    byTrigram.computeIfAbsent(anchor, k -> new ArrayList<>()).add(search);
+                } else {
+                    unanchored.add(search);
+                }
+            }
+            return new Percolator(byTrigram, unanchored);
+        }
+
+        /** Saved searches the listing satisfies */
+        List<Compiled> match(Listing listing) {
+            String text = normalize(listing.getTitle()) + " | " + normalize(listing.getLocation())
+                    + " | " + normalize(listing.getNearbySchools());
+            List<Compiled> matches = new ArrayList<>();
+            for (String gram : trigrams(text)) {
+                List<Compiled> candidates = byTrigram.get(gram);
+                if (candidates == null) continue;
+                for (Compiled search : candidates) {
+                    if (search.matches(listing, text)) matches.add(search);
+                }
+            }
+            for (Compiled search : unanchored) {
+                if (search.matches(listing, text)) matches.add(search);
+            }
+            return matches;
+        }
+    }
+}
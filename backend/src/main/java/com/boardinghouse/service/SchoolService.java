@@ -0,0 +1,260 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.ListingResponse;
+import com.boardinghouse.dto.SchoolRequest;
+import com.boardinghouse.dto.SchoolResponse;
+import com.boardinghouse.entity.Listing;
+import com.boardinghouse.entity.School;
+import com.boardinghouse.exception.ResourceNotFoundException;
+import com.boardinghouse.repository.ListingRepository;
+import com.boardinghouse.repository.SchoolRepository;
+import com.boardinghouse.util.GeoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * School registry plus a sparse school -> listing distance index.
+ *
+ * For each school we keep the approved listings within schools.index.max-km,
+ * sorted by distance. A school's row is computed when it is created or edited, and
+ * patched copy-on-write for one listing at a time from the ApprovedListingPoints
+ * change feed, so "listings within X km of school S" is a binary search and a
+ * prefix read. Index updates are serialized on this service.
+ */
+@Service
+@Slf4j
+public class SchoolService {
+
+    private final SchoolRepository schoolRepository;
+    private final ListingRepository listingRepository;
+    private final ListingService listingService;
+    private final ApprovedListingPoints approvedListingPoints;
+
+    @Value("${schools.index.max-km:10}")
+    private double maxIndexKm;
+
+    /** schoolId -> {latitude, longitude} */
+    private final Map<Long, double[]> schoolPoints = new ConcurrentHashMap<>();
+    /** schoolId -> nearby approved listings, nearest first */
+    private final Map<Long, Row> rows = new ConcurrentHashMap<>();
+
+    public SchoolService(SchoolRepository schoolRepository, ListingRepository listingRepository,
+                         ListingService listingService, ApprovedListingPoints approvedListingPoints) {
+        this.schoolRepository = schoolRepository;
+        this.listingRepository = listingRepository;
+        this.listingService = listingService;
+        this.approvedListingPoints = approvedListingPoints;
+        approvedListingPoints.subscribeChanges(this::onListingChanged);
+        approvedListingPoints.whenLoaded(this::load);
+    }
+
+    private synchronized void load() {
+        // The live point set, so no change delivered before this runs is missed
+        ApprovedListingPoints.Snapshot listings = approvedListingPoints.getLiveSnapshot();
+        for (School school : schoolRepository.findAll()) {
+            index(school.getId(), school.getLatitude(), school.getLongitude(), listings);
+        }
+        log.info("Indexed {} schools against {} approved listings", schoolPoints.size(), listings.size());
+    }
+
+    private synchronized void onListingChanged(Long listingId, Listing listing) {
+        boolean indexable = listing != null && listing.getLatitude() != null && listing.getLongitude() != null;
+        schoolPoints.forEach((schoolId, point) -> {
+            double km = indexable
+                    ? GeoUtils.haversineKm(point[0], point[1], listing.getLatitude(), listing.getLongitude())
+                    : Double.POSITIVE_INFINITY;
+            rows.computeIfPresent(schoolId, (id, row) -> {
+                Row updated = row.without(listingId);
+                return km <= maxIndexKm ? updated.with(listingId, km) : updated;
+            });
+        });
+    }
+
+    public List<SchoolResponse> getAll() {
+        return schoolRepository.findAllByOrderByNameAsc().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    public SchoolResponse create(SchoolRequest request) {
+        if (schoolRepository.existsByNameIgnoreCase(request.getName().trim())) {
+            throw new RuntimeException("School already exists");
+        }
+        School school = School.builder()
+                .name(request.getName().trim())
+                .shortName(request.getShortName())
+                .address(request.getAddress())
+                .latitude(request.getLatitude())
+                .longitude(request.getLongitude())
+                .build();
+        School saved = schoolRepository.save(school);
+        synchronized (this) {
+            index(saved.getId(), saved.getLatitude(), saved.getLongitude(), approvedListingPoints.getLiveSnapshot());
+        }
+        return toResponse(saved);
+    }
+
+    public SchoolResponse update(Long id, SchoolRequest request) {
+        School school = getSchool(id);
+        if (!school.getName().equalsIgnoreCase(request.getName().trim())
+                && schoolRepository.existsByNameIgnoreCase(request.getName().trim())) {
+            throw new RuntimeException("School already exists");
+        }
+        school.setName(request.getName().trim());
+        school.setShortName(request.getShortName());
+        school.setAddress(request.getAddress());
+        school.setLatitude(request.getLatitude());
+        school.setLongitude(request.getLongitude());
+        School saved = schoolRepository.save(school);
+        synchronized (this) {
+            if (!schoolPoints.containsKey(saved.getId())) {
+                // Deleted while we saved; don't bring its row back
+                throw new ResourceNotFoundException("School not found with id: " + id);
+            }
+            index(saved.getId(), saved.getLatitude(), saved.getLongitude(), approvedListingPoints.getLiveSnapshot());
+        }
+        return toResponse(saved);
+    }
+
+    public void delete(Long id) {
+        School school = getSchool(id);
+        schoolRepository.delete(school);
+        synchronized (this) {
+            schoolPoints.remove(id);
+            rows.remove(id);
+        }
+    }
+
+    /**
+     * Approved listings within withinKm of the school, nearest first, with distanceKm set.
+     */
+    public List<ListingResponse> getListingsNear(Long schoolId, double withinKm, int limit) {
+        if (!schoolPoints.containsKey(schoolId)) {
+            throw new ResourceNotFoundException("School not found");
+        }
+        if (withinKm <= 0 || withinKm > maxIndexKm) {
+            throw new RuntimeException("withinKm must be greater than 0 and at most " + maxIndexKm);
+        }
+
+        Row row = rows.getOrDefault(schoolId, Row.EMPTY);
+        int end = Math.min(row.countWithin(withinKm), Math.max(0, limit));
+        List<Long> ids = new ArrayList<>(end);
+        for (int i = 0; i < end; i++) {
+            if (approvedListingPoints.contains(row.listingIds[i])) {
+                ids.add(row.listingIds[i]);
+            }
+        }
+        Map<Long, Listing> byId = listingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+
+        List<ListingResponse> results = new ArrayList<>(end);
+        for (int i = 0; i < end; i++) {
+            Listing listing = byId.get(row.listingIds[i]);
+            if (listing == null || listing.getStatus() != Listing.ListingStatus.APPROVED) continue;
+            ListingResponse response = listingService.toResponse(listing);
+            response.setDistanceKm(row.distancesKm[i]);
+            results.add(response);
+        }
+        return results;
+    }
+
+    private School getSchool(Long id) {
+        return schoolRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("School not found with id: " + id));
+    }
+
+    /** (Re)computes one school's row from a listing points snapshot; caller holds the lock */
+    private void index(Long schoolId, double lat, double lon, ApprovedListingPoints.Snapshot listings) {
+        List<Object[]> hits = new ArrayList<>();
+        for (int i = 0; i < listings.size(); i++) {
+            double km = GeoUtils.haversineKm(lat, lon, listings.latitudes()[i], listings.longitudes()[i]);
+            if (km <= maxIndexKm) {
+                hits.add(new Object[]{listings.listingIds()[i], km});
+            }
+        }
+        hits.sort(Comparator.comparingDouble(hit -> (Double) hit[1]));
+
+        long[] ids = new long[hits.size()];
+        double[] kms = new double[hits.size()];
+        for (int i = 0; i < hits.size(); i++) {
+            ids[i] = (Long) hits.get(i)[0];
+            kms[i] = (Double) hits.get(i)[1];
+        }
+        schoolPoints.put(schoolId, new double[]{lat, lon});
+        rows.put(schoolId, new Row(ids, kms));
+    }
+
+    private SchoolResponse toResponse(School school) {
+        SchoolResponse response = new SchoolResponse();
+        response.setId(school.getId());
+        response.setName(school.getName());
+        response.setShortName(school.getShortName());
+        response.setAddress(school.getAddress());
+        response.setLatitude(school.getLatitude());
+        response.setLongitude(school.getLongitude());
+        response.setNearbyListingCount(rows.getOrDefault(school.getId(), Row.EMPTY).listingIds.length);
+        return response;
+    }
+
+    /** Immutable, distance-sorted parallel arrays; updates return a copy */
+    private static final class Row {
+
+        static final Row EMPTY = new Row(new long[0], new double[0]);
+
+        final long[] listingIds;
+        final double[] distancesKm;
+
+        Row(long[] listingIds, double[] distancesKm) {
+            this.listingIds = listingIds;
+            this.distancesKm = distancesKm;
+        }
+
+        /** Number of leading entries with distance <= km */
+        int countWithin(double km) {
+            int lo = 0;
+            int hi = distancesKm.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (distancesKm[mid] <= km) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        Row without(long listingId) {
+            for (int i = 0; i < listingIds.length; i++) {
+                if (listingIds[i] == listingId) {
+                    long[] ids = new long[listingIds.length - 1];
+                    double[] kms = new double[ids.length];
+                    System.arraycopy(listingIds, 0, ids, 0, i);
+                    System.arraycopy(listingIds, i + 1, ids, i, ids.length - i);
+                    System.arraycopy(distancesKm, 0, kms, 0, i);
+                    System.arraycopy(distancesKm, i + 1, kms, i, kms.length - i);
+                    return new Row(ids, kms);
+                }
+            }
+            return this;
+        }
+
+        Row with(long listingId, double km) {
+            int at = countWithin(km);
+            long[] ids = Arrays.copyOf(listingIds, listingIds.length + 1);
+            double[] kms = Arrays.copyOf(distancesKm, distancesKm.length + 1);
+            System.arraycopy(listingIds, at, ids, at + 1, listingIds.length - at);
+            System.arraycopy(distancesKm, at, kms, at + 1, distancesKm.length - at);
+            ids[at] = listingId;
+            kms[at] = km;
+            return new Row(ids, kms);
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.ListingResponse;
+import com.boardinghouse.entity.Listing;
+import com.boardinghouse.event.FavoriteChangedEvent;
+import com.boardinghouse.event.RatingChangedEvent;
+import com.boardinghouse.repository.FavoriteRepository;
+import com.boardinghouse.repository.ListingRepository;
+import com.boardinghouse.repository.RatingRepository;
+import com.boardinghouse.util.LongIntHashMap;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * "Students who saved this also saved..." via item-item co-occurrence.
+ *
+ * A student has a positive interaction with a listing when they favorited it or
+ * rated it 4-5 stars. For every pair of listings sharing a student we count the
+ * students in a sparse matrix (one LongIntHashMap row per listing), updated as
+ * favorites and ratings change. Similarity is cosine over those counts:
+ * co(i, j) / sqrt(users(i) * users(j)), so a lookup walks one row.
+ *
+ * The per-student interaction sets are checkpointed to disk so a restart can
+ * rebuild the matrix without scanning the favorites and ratings tables. Alongside
+ * the counts it stores an order-independent checksum of the (student, listing)
+ * pairs; if either doesn't match the database the checkpoint is discarded.
+ */
+@Service
+@Slf4j
+public class SimilarListingService {
+
+    private static final int CHECKPOINT_MAGIC = 0x53494D43; // "SIMC"
+    private static final int CHECKPOINT_VERSION = 2;
+    private static final int LIKED_STARS = 4;
+    private static final int FAVORITE = 1;
+    private static final int LIKED_RATING = 2;
+
+    private final FavoriteRepository favoriteRepository;
+    private final RatingRepository ratingRepository;
+    private final ListingRepository listingRepository;
+    private final ListingService listingService;
+
+    @Value("${recommendations.similar.checkpoint-path:}")
+    private String checkpointPath;
+
+    @Value("${recommendations.similar.min-co-count:1}")
+    private int minCoCount;
+
+    @Value("${recommendations.similar.max-limit:50}")
+    private int maxLimit;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** userId -> (listingId -> FAVORITE | LIKED_RATING flags) */
+    private final Map<Long, LongIntHashMap> userItems = new HashMap<>();
+    /** listingId -> (other listingId -> number of students with both) */
+    private final Map<Long, LongIntHashMap> rows = new HashMap<>();
+    /** listingId -> number of students with a positive interaction */
+    private final LongIntHashMap itemUsers = new LongIntHashMap();
+    private long favoritesTotal;
+    private long likedRatingsTotal;
+    private long favoritesChecksum;
+    private long likedRatingsChecksum;
+
+    private final AtomicBoolean changedSinceCheckpoint = new AtomicBoolean();
+
+    public SimilarListingService(FavoriteRepository favoriteRepository, RatingRepository ratingRepository,
+                                 ListingRepository listingRepository, ListingService listingService) {
+        this.favoriteRepository = favoriteRepository;
+        this.ratingRepository = ratingRepository;
+        this.listingRepository = listingRepository;
+        this.listingService = listingService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        if (loadCheckpoint()) {
+            long favorites = favoriteRepository.count();
+            long liked = ratingRepository.countByRatingGreaterThanEqual(LIKED_STARS);
+            long favoritesSum = favoriteRepository.checksumUserListingPairs();
+            long likedSum = ratingRepository.checksumUserListingPairsWithRatingAtLeast(LIKED_STARS);
+            if (favorites == favoritesTotal && liked == likedRatingsTotal
+                    && favoritesSum == favoritesChecksum && likedSum == likedRatingsChecksum) {
+                log.info("Co-occurrence model restored from checkpoint: {} students, {} listings in {} ms",
+                        userItems.size(), rows.size(), (System.nanoTime() - start) / 1_000_000);
+                return;
+            }
+            log.info("Co-occurrence checkpoint is stale ({} / {} favorites, {} / {} liked ratings, checksums {}), rebuilding",
+                    favoritesTotal, favorites, likedRatingsTotal, liked,
+                    favoritesSum == favoritesChecksum && likedSum == likedRatingsChecksum ? "match" : "differ");
+        }
+        rebuildFromDatabase();
+        log.info("Co-occurrence model built from database: {} students, {} listings in {} ms",
+                userItems.size(), rows.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            favoritesTotal += event.isAdded() ? 1 : -1;
+            favoritesChecksum += (event.isAdded() ? 1 : -1) * pairChecksum(event.getUserId(), event.getListingId());
+            setFlag(event.getUserId(), event.getListingId(), FAVORITE, event.isAdded());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        changedSinceCheckpoint.set(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        boolean wasLiked = event.getPreviousStars() != null && event.getPreviousStars() >= LIKED_STARS;
+        boolean isLiked = event.getStars() >= LIKED_STARS;
+        if (wasLiked == isLiked) return;
+
+        lock.writeLock().lock();
+        try {
+            likedRatingsTotal += isLiked ? 1 : -1;
+            likedRatingsChecksum += (isLiked ? 1 : -1) * pairChecksum(event.getUserId(), event.getListingId());
+            setFlag(event.getUserId(), event.getListingId(), LIKED_RATING, isLiked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        changedSinceCheckpoint.set(true);
+    }
+
+    /**
+     * Approved listings most often saved or liked by the same students, best first.
+     */
+    public List<ListingResponse> findSimilar(Long listingId, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new RuntimeException("limit must be between 1 and " + maxLimit);
+        }
+
+        // Over-fetch a little: some neighbours may no longer be approved
+        int k = limit * 2;
+        long[] heapIds = new long[k];
+        double[] heapScores = new double[k];
+        int size;
+
+        lock.readLock().lock();
+        try {
+            LongIntHashMap row = rows.get(listingId);
+            if (row == null) return List.of();
+            double users = Math.max(1, itemUsers.get(listingId));
+            int[] count = {0};
+            row.forEach((other, co) -> {
+                if (co < minCoCount) return;
+                double score = co / Math.sqrt(users * Math.max(1, itemUsers.get(other)));
+                count[0] = offer(heapIds, heapScores, count[0], other, score);
+            });
+            size = count[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Pop the min-heap from the back so the best ends up first
+        List<Long> ids = new ArrayList<>(size);
+        long[] ordered = new long[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ordered[i] = heapIds[0];
+            heapIds[0] = heapIds[i];
+            heapScores[0] = heapScores[i];
+            siftDown(heapIds, heapScores, i);
+        }
+        for (long id : ordered) ids.add(id);
+
+        Map<Long, Listing> byId = listingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+        List<ListingResponse> results = new ArrayList<>(limit);
+        for (Long id : ids) {
+            Listing listing = byId.get(id);
+            if (listing != null && listing.getStatus() == Listing.ListingStatus.APPROVED) {
+                results.add(listingService.toResponse(listing));
+                if (results.size() == limit) break;
+            }
+        }
+        return results;
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.similar.checkpoint-interval:300000}")
+    public void checkpointIfChanged() {
+        if (changedSinceCheckpoint.compareAndSet(true, false)) {
+            writeCheckpoint();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (changedSinceCheckpoint.get()) {
+            writeCheckpoint();
+        }
+    }
+
+    /** Caller holds the write lock */
+    private void setFlag(Long userId, long listingId, int flag, boolean on) {
+        LongIntHashMap items = userItems.computeIfAbsent(userId, id -> new LongIntHashMap(4));
+        int before = items.get(listingId);
+        int after = on ? before | flag : before & ~flag;
+        if (before == after) return;
+
+        if (after == 0) {
+            items.remove(listingId);
+            items.forEach((other, flags) -> {
+                increment(listingId, other, -1);
+                increment(other, listingId, -1);
+            });
+            if (itemUsers.addTo(listingId, -1) <= 0) itemUsers.remove(listingId);
+            if (items.isEmpty()) userItems.remove(userId);
+        } else {
+            if (before == 0) {
+                items.forEach((other, flags) -> {
+                    increment(listingId, other, 1);
+                    increment(other, listingId, 1);
+                });
+                itemUsers.addTo(listingId, 1);
+            }
+            items.put(listingId, after);
+        }
+    }
+
+    private void increment(long listingId, long other, int delta) {
+        LongIntHashMap row = rows.computeIfAbsent(listingId, id -> new LongIntHashMap());
+        if (row.addTo(other, delta) <= 0) {
+            row.remove(other);
+            if (row.isEmpty()) rows.remove(listingId);
+        }
+    }
+
+    private void rebuildFromDatabase() {
+        List<Object[]> favorites = favoriteRepository.findAllUserListingPairs();
+        List<Object[]> liked = ratingRepository.findUserListingPairsWithRatingAtLeast(LIKED_STARS);
+
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (Object[] pair : favorites) {
+                setFlag((Long) pair[0], (Long) pair[1], FAVORITE, true);
+                favoritesChecksum += pairChecksum((Long) pair[0], (Long) pair[1]);
+            }
+            for (Object[] pair : liked) {
+                setFlag((Long) pair[0], (Long) pair[1], LIKED_RATING, true);
+                likedRatingsChecksum += pairChecksum((Long) pair[0], (Long) pair[1]);
+            }
+            favoritesTotal = favorites.size();
+            likedRatingsTotal = liked.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        changedSinceCheckpoint.set(true);
+    }
+
+    private void clear() {
+        userItems.clear();
+        rows.clear();
+        itemUsers.clear();
+        favoritesTotal = 0;
+        likedRatingsTotal = 0;
+        favoritesChecksum = 0;
+        likedRatingsChecksum = 0;
+    }
+
+    /** One pair's term of the checksum; must match the SUM(MOD(...)) in the repository queries */
+    static long pairChecksum(long userId, long listingId) {
+        return Math.floorMod(userId * 1000003 + listingId, 2147483647L);
+    }
+
+    private void writeCheckpoint() {
+        if (checkpointPath == null || checkpointPath.isBlank()) return;
+        Path target = Path.of(checkpointPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeLong(favoritesTotal);
+            out.writeLong(likedRatingsTotal);
+            out.writeLong(favoritesChecksum);
+            out.writeLong(likedRatingsChecksum);
+            out.writeInt(userItems.size());
+            for (Map.Entry<Long, LongIntHashMap> user : userItems.entrySet()) {
+                out.writeLong(user.getKey());
+                out.writeInt(user.getValue().size());
+                IOException[] failure = new IOException[1];
+                user.getValue().forEach((listingId, flags) -> {
+                    try {
+                        out.writeLong(listingId);
+                        out.writeByte(flags);
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                });
+                if (failure[0] != null) throw failure[0];
+            }
+        } catch (IOException e) {
+            log.warn("Could not write co-occurrence checkpoint to {}", target, e);
+            return;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not replace co-occurrence checkpoint {}", target, e);
+        }
+    }
+
+    /** Returns false if there is no usable checkpoint */
+    private boolean loadCheckpoint() {
+        if (checkpointPath == null || checkpointPath.isBlank()) return false;
+        Path path = Path.of(checkpointPath);
+        if (!Files.exists(path)) return false;
+
+        lock.writeLock().lock();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path))))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                log.warn("Ignoring co-occurrence checkpoint {} with unknown format", path);
+                return false;
+            }
+            clear();
+            long favorites = in.readLong();
+            long liked = in.readLong();
+            long favoritesSum = in.readLong();
+            long likedSum = in.readLong();
+            int users = in.readInt();
+            for (int u = 0; u < users; u++) {
+                long userId = in.readLong();
+                int items = in.readInt();
+                for (int i = 0; i < items; i++) {
+                    long listingId = in.readLong();
+                    int flags = in.readByte();
+                    if ((flags & FAVORITE) != 0) setFlag(userId, listingId, FAVORITE, true);
+                    if ((flags & LIKED_RATING) != 0) setFlag(userId, listingId, LIKED_RATING, true);
+                }
+            }
+            favoritesTotal = favorites;
+            likedRatingsTotal = liked;
+            favoritesChecksum = favoritesSum;
+            likedRatingsChecksum = likedSum;
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not read co-occurrence checkpoint {}", path, e);
+            clear();
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Bounded min-heap insert; returns the new size */
+    private static int offer(long[] ids, double[] scores, int size, long id, double score) {
+        if (size < ids.length) {
+            int i = size++;
+            ids[i] = id;
+            scores[i] = score;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (scores[parent] <= scores[i]) break;
+                swap(ids, scores, i, parent);
+                i = parent;
+            }
+        } else if (score > scores[0]) {
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(ids, scores, size);
+        }
+        return size;
+    }
+
+    private static void siftDown(long[] ids, double[] scores, int size) {
+        int i = 0;
+        while (true) {
+            int l = 2 * i + 1;
+            int r = l + 1;
+            int smallest = i;
+            if (l < size && scores[l] < scores[smallest]) smallest = l;
+            if (r < size && scores[r] < scores[smallest]) smallest = r;
+            if (smallest == i) return;
+            swap(ids, scores, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(long[] ids, double[] scores, int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
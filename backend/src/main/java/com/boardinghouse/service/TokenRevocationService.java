@@ -0,0 +1,99 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.entity.RevokedToken;
+import com.boardinghouse.repository.RevokedTokenRepository;
+import com.boardinghouse.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the set of revoked access tokens (by JWT id) in memory so the JWT filter
+ * can check revocation without touching the database. A Bloom filter sits in front
+ * of the set, so the common case (token not revoked) is a handful of bit reads.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    // jti -> expiry (epoch millis)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    /** Rebuild the revocation set from the database at startup */
+    @PostConstruct
+    public void loadRevokedTokens() {
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now());
+        for (RevokedToken token : active) {
+            revoked.put(token.getJti(), toEpochMillis(token.getExpiresAt()));
+        }
+        rebuildFilter();
+        log.info("Loaded {} revoked access tokens", revoked.size());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return revoked.containsKey(tokenId);
+    }
+
+    /** Revoke an access token until it would have expired anyway */
+    @Transactional
+    public void revoke(String tokenId, Date expiresAt) {
+        if (tokenId == null || expiresAt == null || expiresAt.before(new Date())) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(tokenId)
+                .expiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()))
+                .build());
+        synchronized (this) {
+            revoked.put(tokenId, expiresAt.getTime());
+            filter.add(tokenId);
+        }
+    }
+
+    /** Drop expired entries; the Bloom filter can't delete, so it is rebuilt from what's left */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiry -> expiry < now);
+        rebuildFilter();
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Purged {} expired revoked tokens", deleted);
+        }
+    }
+
+    private synchronized void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
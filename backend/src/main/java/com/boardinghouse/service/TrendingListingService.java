@@ -0,0 +1,264 @@
+package com.boardinghouse.service;
+
+import com.boardinghouse.dto.ListingResponse;
+import com.boardinghouse.entity.ListingViewRollup;
+import com.boardinghouse.event.FavoriteChangedEvent;
+import com.boardinghouse.event.InquiryCreatedEvent;
+import com.boardinghouse.event.ListingChangedEvent;
+import com.boardinghouse.repository.FavoriteRepository;
+import com.boardinghouse.repository.InquiryRepository;
+import com.boardinghouse.repository.ListingViewRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Hot right now" listings from exponentially decayed activity: every view,
+ * favorite and inquiry adds its weight, and a listing's score halves every
+ * trending.half-life-hours without new activity.
+ *
+ * Decay is lazy and uses a shared landmark time L (forward decay): an event at t
+ * adds weight * e^(lambda * (t - L)). Scaling every score by the same
+ * e^(-lambda * (now - L)) gives the decayed value, but doesn't change the order, so
+ * stored scores never need touching as time passes and the skip list stays sorted.
+ * An hourly rebase moves L forward so the exponent stays small, and drops listings
+ * whose score has decayed to nothing.
+ *
+ * Activity updates only the one listing's entry, so concurrent bumps don't wait on
+ * each other; the rebase is the only step that excludes them.
+ *
+ * Reading the top K walks the head of the skip list and takes the responses from a
+ * map of the top trending.max-limit * 2 listings, refreshed every
+ * trending.refresh-interval, so a read never goes to the database.
+ */
+@Service
+@Slf4j
+public class TrendingListingService {
+
+    private static final double MIN_SCORE = 0.05;
+
+    private final ListingCache listingCache;
+    private final FavoriteRepository favoriteRepository;
+    private final InquiryRepository inquiryRepository;
+    private final ListingViewRollupRepository viewRollupRepository;
+
+    @Value("${trending.weights.view:1}")
+    private double viewWeight;
+
+    @Value("${trending.weights.favorite:5}")
+    private double favoriteWeight;
+
+    @Value("${trending.weights.inquiry:8}")
+    private double inquiryWeight;
+
+    @Value("${trending.max-tracked:10000}")
+    private int maxTracked;
+
+    @Value("${trending.max-limit:50}")
+    private int maxLimit;
+
+    /** Decay rate per millisecond */
+    private final double lambda;
+    private final long halfLifeMillis;
+    private volatile long landmark = System.currentTimeMillis();
+
+    private static final Comparator<Rank> HOTTEST_FIRST =
+            Comparator.comparingDouble(Rank::score).reversed().thenComparingLong(Rank::listingId);
+
+    // Replaced wholesale by rebase(), so readers never see a half-rebuilt ordering
+    private volatile Map<Long, Rank> ranks = new ConcurrentHashMap<>();
+    private volatile ConcurrentSkipListSet<Rank> order = new ConcurrentSkipListSet<>(HOTTEST_FIRST);
+
+    /** Bumps and removals share the read side; only rebase() takes the write side */
+    private final ReadWriteLock rebaseLock = new ReentrantReadWriteLock();
+
+    /** Responses for the head of the ranking, approved listings only */
+    private volatile Map<Long, ListingResponse> responses = Map.of();
+
+    public TrendingListingService(ListingCache listingCache, FavoriteRepository favoriteRepository,
+                                  InquiryRepository inquiryRepository,
+                                  ListingViewRollupRepository viewRollupRepository,
+                                  @Value("${trending.half-life-hours:72}") double halfLifeHours) {
+        this.listingCache = listingCache;
+        this.favoriteRepository = favoriteRepository;
+        this.inquiryRepository = inquiryRepository;
+        this.viewRollupRepository = viewRollupRepository;
+        this.halfLifeMillis = (long) (halfLifeHours * 3_600_000);
+        this.lambda = Math.log(2) / halfLifeMillis;
+    }
+
+    /**
+     * Replays recent favorites, inquiries and view rollups so a restart doesn't reset
+     * trending. Views older than the hourly retention only survive in DAY (or WEEK)
+     * rows, so every granularity inside the window is read; folding deletes the finer
+     * rows, so none are counted twice.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        // Anything older than ~10 half-lives has decayed below a thousandth
+        LocalDateTime since = LocalDateTime.now().minus(Duration.ofMillis(halfLifeMillis * 10));
+        ZoneId zone = ZoneId.systemDefault();
+        int events = 0;
+        for (Object[] row : favoriteRepository.findListingTimesSince(since)) {
+            bump((Long) row[0], favoriteWeight, toMillis((LocalDateTime) row[1], zone));
+            events++;
+        }
+        for (Object[] row : inquiryRepository.findListingTimesSince(since)) {
+            bump((Long) row[0], inquiryWeight, toMillis((LocalDateTime) row[1], zone));
+            events++;
+        }
+        for (ListingViewRollup.Granularity granularity : ListingViewRollup.Granularity.values()) {
+            long halfBucketMillis = switch (granularity) {
+                case HOUR -> Duration.ofMinutes(30).toMillis();
+                case DAY -> Duration.ofHours(12).toMillis();
+                case WEEK -> Duration.ofHours(84).toMillis();
+            };
+            for (ListingViewRollup row : viewRollupRepository.findByGranularityAndBucketStartGreaterThanEqual(
+                    granularity, since)) {
+                // Credit a bucket's views at its midpoint
+                long at = toMillis(row.getBucketStart(), zone) + halfBucketMillis;
+                bump(row.getListingId(), viewWeight * row.getViews(), at);
+                events++;
+            }
+        }
+        log.info("Trending warmed up from {} activity rows, tracking {} listings", events, ranks.size());
+        refreshResponses();
+    }
+
+    public void recordView(Long listingId) {
+        bump(listingId, viewWeight, System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        if (event.isAdded()) {
+            bump(event.getListingId(), favoriteWeight, System.currentTimeMillis());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInquiryCreated(InquiryCreatedEvent event) {
+        bump(event.getListingId(), inquiryWeight, System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (!event.isVisible()) {
+            remove(event.getListingId());
+        }
+    }
+
+    /** The top trending approved listings, hottest first */
+    public List<ListingResponse> getTrending(int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new RuntimeException("limit must be between 1 and " + maxLimit);
+        }
+        Map<Long, ListingResponse> current = responses;
+        List<ListingResponse> results = new ArrayList<>(limit);
+        // A few extra in case some at the top are no longer approved or not loaded yet
+        Iterator<Rank> it = order.iterator();
+        for (int seen = 0; it.hasNext() && seen < limit * 2 && results.size() < limit; seen++) {
+            ListingResponse response = current.get(it.next().listingId());
+            if (response != null) results.add(response);
+        }
+        return results;
+    }
+
+    /** Reloads the responses for the current head of the ranking, through ListingCache */
+    @Scheduled(fixedDelayString = "${trending.refresh-interval:10000}",
+            initialDelayString = "${trending.refresh-interval:10000}")
+    public void refreshResponses() {
+        List<Long> ids = new ArrayList<>(maxLimit * 2);
+        Iterator<Rank> it = order.iterator();
+        while (it.hasNext() && ids.size() < maxLimit * 2) {
+            ids.add(it.next().listingId());
+        }
+        responses = ids.isEmpty() ? Map.of() : listingCache.getApproved(ids);
+    }
+
+    /** Moves the landmark to now, rescaling scores and dropping ones that decayed away */
+    @Scheduled(fixedDelayString = "${trending.rebase-interval:3600000}")
+    public void rebase() {
+        rebaseLock.writeLock().lock();
+        try {
+            long now = System.currentTimeMillis();
+            double factor = Math.exp(-lambda * (now - landmark));
+            Map<Long, Rank> nextRanks = new ConcurrentHashMap<>();
+            ConcurrentSkipListSet<Rank> nextOrder = new ConcurrentSkipListSet<>(HOTTEST_FIRST);
+            for (Rank rank : ranks.values()) {
+                double score = rank.score() * factor;
+                if (score >= MIN_SCORE) {
+                    Rank rescaled = new Rank(rank.listingId(), score);
+                    nextRanks.put(rescaled.listingId(), rescaled);
+                    nextOrder.add(rescaled);
+                }
+            }
+            landmark = now;
+            ranks = nextRanks;
+            order = nextOrder;
+        } finally {
+            rebaseLock.writeLock().unlock();
+        }
+    }
+
+    private void bump(Long listingId, double weight, long atMillis) {
+        rebaseLock.readLock().lock();
+        try {
+            double added = weight * Math.exp(lambda * (atMillis - landmark));
+            Map<Long, Rank> currentRanks = ranks;
+            ConcurrentSkipListSet<Rank> currentOrder = order;
+            // compute() serializes bumps of the same listing; others proceed in parallel
+            currentRanks.compute(listingId, (id, previous) -> {
+                if (previous != null) currentOrder.remove(previous);
+                Rank rank = new Rank(id, (previous != null ? previous.score() : 0) + added);
+                currentOrder.add(rank);
+                return rank;
+            });
+
+            if (currentRanks.size() > maxTracked) {
+                Rank coldest = currentOrder.pollLast();
+                // Only if it wasn't bumped (and so replaced) meanwhile
+                if (coldest != null) currentRanks.remove(coldest.listingId(), coldest);
+            }
+        } finally {
+            rebaseLock.readLock().unlock();
+        }
+    }
+
+    private void remove(Long listingId) {
+        rebaseLock.readLock().lock();
+        try {
+            ConcurrentSkipListSet<Rank> currentOrder = order;
+            ranks.computeIfPresent(listingId, (id, rank) -> {
+                currentOrder.remove(rank);
+                return null;
+            });
+        } finally {
+            rebaseLock.readLock().unlock();
+        }
+    }
+
+    private static long toMillis(LocalDateTime time, ZoneId zone) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private record Rank(long listingId, double score) {
+    }
+}
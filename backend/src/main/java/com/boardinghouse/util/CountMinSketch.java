@@ -0,0 +1,87 @@
+package com.boardinghouse.util;
+
+/**
+ * Count-Min Sketch over long keys with conservative update. Estimates never
+ * undercount; with width w they overcount by at most about e/w of the total with
+ * high probability (depth rows of independent hashes). Not thread-safe; callers
+ * synchronize.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final long[] seeds;
+    private final int[][] counts;
+    private long total;
+
+    /** width is rounded up to a power of two */
+    public CountMinSketch(int depth, int width, long seed) {
+        int w = Integer.highestOneBit(Math.max(2, width) - 1) << 1;
+        this.depth = depth;
+        this.mask = w - 1;
+        this.seeds = new long[depth];
+        this.counts = new int[depth][w];
+        long s = seed;
+        for (int i = 0; i < depth; i++) {
+            s += 0x9E3779B97F4A7C15L;
+            seeds[i] = mix(s);
+        }
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return mask + 1;
+    }
+
+    /** Sum of all increments since the last halve() (halved along with the counters) */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Adds one occurrence of key and returns its new estimate. Conservative update:
+     * only the rows at the current minimum are raised, which keeps overcounts lower.
+     */
+    public int add(long key) {
+        int[] slots = new int[depth];
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            slots[i] = (int) mix(key ^ seeds[i]) & mask;
+            min = Math.min(min, counts[i][slots[i]]);
+        }
+        int estimate = min == Integer.MAX_VALUE ? min : min + 1;
+        for (int i = 0; i < depth; i++) {
+            if (counts[i][slots[i]] < estimate) counts[i][slots[i]] = estimate;
+        }
+        total++;
+        return estimate;
+    }
+
+    public int estimate(long key) {
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, counts[i][(int) mix(key ^ seeds[i]) & mask]);
+        }
+        return min;
+    }
+
+    /** Halves every counter, so old traffic fades and the sketch tracks recent load */
+    public void halve() {
+        for (int[] row : counts) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] >>>= 1;
+            }
+        }
+        total >>>= 1;
+    }
+
+    /** SplitMix64 finalizer */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
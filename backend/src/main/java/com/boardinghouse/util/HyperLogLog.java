@@ -0,0 +1,120 @@
+package com.boardinghouse.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog distinct-count sketch with 2^p six-bit registers packed into a byte
+ * array (p = 11 is 1536 bytes, about 2.3% standard error). Sketches with the same
+ * p can be merged to count the union. Not thread-safe; callers synchronize.
+ */
+public final class HyperLogLog {
+
+    private static final int REGISTER_BITS = 6;
+    private static final int REGISTER_MASK = (1 << REGISTER_BITS) - 1;
+
+    private final int p;
+    private final int m;
+    private final byte[] registers;
+
+    public HyperLogLog(int p) {
+        if (p < 4 || p > 16) {
+            throw new IllegalArgumentException("p must be between 4 and 16");
+        }
+        this.p = p;
+        this.m = 1 << p;
+        this.registers = new byte[m * REGISTER_BITS / 8];
+    }
+
+    /** Restores a sketch written by toBytes() */
+    public static HyperLogLog fromBytes(int p, byte[] bytes) {
+        HyperLogLog hll = new HyperLogLog(p);
+        if (bytes.length != hll.registers.length) {
+            throw new IllegalArgumentException("Expected " + hll.registers.length + " bytes, got " + bytes.length);
+        }
+        System.arraycopy(bytes, 0, hll.registers, 0, bytes.length);
+        return hll;
+    }
+
+    public byte[] toBytes() {
+        return registers.clone();
+    }
+
+    /** Adds a 64-bit hash; returns true if the sketch changed */
+    public boolean offer(long hash) {
+        int index = (int) (hash >>> (64 - p));
+        // Position of the first 1-bit in the rest of the hash; at most 64 - p + 1, fits in 6 bits
+        int rank = Long.numberOfLeadingZeros((hash << p) | (1L << (p - 1))) + 1;
+        if (rank > get(index)) {
+            set(index, rank);
+            return true;
+        }
+        return false;
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < m; i++) {
+            int value = get(i);
+            sum += 1.0 / (1L << value);
+            if (value == 0) zeros++;
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Linear counting is more accurate while many registers are still empty
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /** Folds other into this sketch, so it counts the union */
+    public void merge(HyperLogLog other) {
+        if (other.p != p) {
+            throw new IllegalArgumentException("Cannot merge sketches with different p");
+        }
+        for (int i = 0; i < m; i++) {
+            int value = other.get(i);
+            if (value > get(i)) set(i, value);
+        }
+    }
+
+    /** 64-bit hash of a string (FNV-1a, then a SplitMix64 finalizer to spread the bits) */
+    public static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    private int get(int index) {
+        int bit = index * REGISTER_BITS;
+        int at = bit >>> 3;
+        int shift = bit & 7;
+        int word = registers[at] & 0xff;
+        if (shift + REGISTER_BITS > 8) {
+            word |= (registers[at + 1] & 0xff) << 8;
+        }
+        return (word >>> shift) & REGISTER_MASK;
+    }
+
+    private void set(int index, int value) {
+        int bit = index * REGISTER_BITS;
+        int at = bit >>> 3;
+        int shift = bit & 7;
+        int word = registers[at] & 0xff;
+        boolean spans = shift + REGISTER_BITS > 8;
+        if (spans) {
+            word |= (registers[at + 1] & 0xff) << 8;
+        }
+        word = (word & ~(REGISTER_MASK << shift)) | (value << shift);
+        registers[at] = (byte) word;
+        if (spans) {
+            registers[at + 1] = (byte) (word >>> 8);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.boardinghouse.util;
+
+import com.boardinghouse.dto.CursorPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Opaque cursor for keyset pagination over (createdAt desc, id desc): the position
+ * of the last row of a page. The next page is everything strictly after it, so
+ * paging stays O(page size) however deep it goes and rows inserted meanwhile don't
+ * shift later pages.
+ */
+public record KeysetCursor(LocalDateTime createdAt, long id) {
+
+    /** A row ordered by (createdAt desc, id desc); query projections extend this */
+    public interface Keyed {
+
+        Long getId();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    /**
+     * Reads one page after the encoded cursor. fetch gets the decoded cursor (null for
+     * the first page) and a Pageable one row larger than limit; the extra row only
+     * tells us whether there is a next page.
+     */
+    public static <R extends Keyed, T> CursorPage<T> page(String cursor, int limit, int maxLimit,
+                                                          BiFunction<KeysetCursor, Pageable, List<R>> fetch,
+                                                          Function<R, T> mapper) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new RuntimeException("limit must be between 1 and " + maxLimit);
+        }
+        List<R> rows = fetch.apply(decode(cursor), PageRequest.of(0, limit + 1));
+
+        List<T> items = rows.stream().limit(limit).map(mapper).toList();
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            R last = rows.get(limit - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Parses a cursor from encode(); null or blank means the first page */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int bar = raw.lastIndexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, bar)), Long.parseLong(raw.substring(bar + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.boardinghouse.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * MinHash signatures for estimating Jaccard similarity between feature sets.
+ * The fraction of equal positions in two signatures is an unbiased estimate of
+ * |A ∩ B| / |A ∪ B|.
+ */
+public final class MinHash {
+
+    private final long[] seeds;
+
+    public MinHash(int numHashes, long seed) {
+        this.seeds = new long[numHashes];
+        long s = seed;
+        for (int i = 0; i < numHashes; i++) {
+            s += 0x9E3779B97F4A7C15L;
+            seeds[i] = mix(s);
+        }
+    }
+
+    public int size() {
+        return seeds.length;
+    }
+
+    public int[] signature(Collection<String> features) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String feature : features) {
+            long base = fnv1a(feature);
+            for (int i = 0; i < seeds.length; i++) {
+                int h = (int) (mix(base ^ seeds[i]) >>> 33); // non-negative 31 bits
+                if (h < signature[i]) signature[i] = h;
+            }
+        }
+        return signature;
+    }
+
+    public static double estimateJaccard(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return (double) equal / a.length;
+    }
+
+    private static long fnv1a(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /** SplitMix64 finalizer */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,139 @@
+package com.boardinghouse.util;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Static 2D KD-tree over points given as parallel x/y arrays.
+ * Built once (the coordinates are sorted in place into a flat array, no node
+ * objects); queries report the original array indexes of matching points.
+ */
+public final class PointKdTree {
+
+    private static final int DEFAULT_NODE_SIZE = 64;
+
+    private final int nodeSize;
+    private final int[] ids;
+    private final double[] coords;
+
+    public PointKdTree(double[] xs, double[] ys, int count) {
+        this(xs, ys, count, DEFAULT_NODE_SIZE);
+    }
+
+    public PointKdTree(double[] xs, double[] ys, int count, int nodeSize) {
+        this.nodeSize = Math.max(1, nodeSize);
+        this.ids = new int[count];
+        this.coords = new double[count * 2];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+            coords[2 * i] = xs[i];
+            coords[2 * i + 1] = ys[i];
+        }
+        sort(0, count - 1, 0);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /** Reports every point inside the axis-aligned box (inclusive) */
+    public void range(double minX, double minY, double maxX, double maxY, IntConsumer out) {
+        range(0, ids.length - 1, 0, minX, minY, maxX, maxY, out);
+    }
+
+    /** Reports every point within Euclidean distance r of (qx, qy) */
+    public void within(double qx, double qy, double r, IntConsumer out) {
+        within(0, ids.length - 1, 0, qx, qy, r * r, r, out);
+    }
+
+    private void range(int left, int right, int axis,
+                       double minX, double minY, double maxX, double maxY, IntConsumer out) {
+        if (left > right) return;
+        if (right - left <= nodeSize) {
+            for (int i = left; i <= right; i++) {
+                double x = coords[2 * i];
+                double y = coords[2 * i + 1];
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY) out.accept(ids[i]);
+            }
+            return;
+        }
+
+        int m = (left + right) >>> 1;
+        double x = coords[2 * m];
+        double y = coords[2 * m + 1];
+        if (x >= minX && x <= maxX && y >= minY && y <= maxY) out.accept(ids[m]);
+
+        if (axis == 0 ? minX <= x : minY <= y) range(left, m - 1, 1 - axis, minX, minY, maxX, maxY, out);
+        if (axis == 0 ? maxX >= x : maxY >= y) range(m + 1, right, 1 - axis, minX, minY, maxX, maxY, out);
+    }
+
+    private void within(int left, int right, int axis,
+                        double qx, double qy, double r2, double r, IntConsumer out) {
+        if (left > right) return;
+        if (right - left <= nodeSize) {
+            for (int i = left; i <= right; i++) {
+                if (sqDist(coords[2 * i], coords[2 * i + 1], qx, qy) <= r2) out.accept(ids[i]);
+            }
+            return;
+        }
+
+        int m = (left + right) >>> 1;
+        double x = coords[2 * m];
+        double y = coords[2 * m + 1];
+        if (sqDist(x, y, qx, qy) <= r2) out.accept(ids[m]);
+
+        if (axis == 0 ? qx - r <= x : qy - r <= y) within(left, m - 1, 1 - axis, qx, qy, r2, r, out);
+        if (axis == 0 ? qx + r >= x : qy + r >= y) within(m + 1, right, 1 - axis, qx, qy, r2, r, out);
+    }
+
+    /** Recursively partitions around the median so the array forms an implicit tree */
+    private void sort(int left, int right, int axis) {
+        if (right - left <= nodeSize) return;
+        int m = (left + right) >>> 1;
+        select(m, left, right, axis);
+        sort(left, m - 1, 1 - axis);
+        sort(m + 1, right, 1 - axis);
+    }
+
+    /** Quickselect: afterwards coords[k] on the axis is the k-th smallest in [left, right] */
+    private void select(int k, int left, int right, int axis) {
+        while (right > left) {
+            double pivot = coords[2 * ((left + right) >>> 1) + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coords[2 * i + axis] < pivot) i++;
+                while (coords[2 * j + axis] > pivot) j--;
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double x = coords[2 * i];
+        double y = coords[2 * i + 1];
+        coords[2 * i] = coords[2 * j];
+        coords[2 * i + 1] = coords[2 * j + 1];
+        coords[2 * j] = x;
+        coords[2 * j + 1] = y;
+    }
+
+    private static double sqDist(double ax, double ay, double bx, double by) {
+        double dx = ax - bx;
+        double dy = ay - by;
+        return dx * dx + dy * dy;
+    }
+}
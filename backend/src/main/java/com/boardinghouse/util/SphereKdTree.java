@@ -0,0 +1,212 @@
+package com.boardinghouse.util;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Static 3D KD-tree over lat/lon points mapped onto the unit sphere.
+ * Straight-line (chord) distance between unit vectors grows monotonically with
+ * great-circle distance, so nearest-neighbour search can use plain Euclidean
+ * pruning with no special cases at the poles or the antimeridian.
+ */
+public final class SphereKdTree {
+
+    private static final int NODE_SIZE = 16;
+
+    private final int[] ids;
+    private final double[] coords;
+
+    public record Neighbor(int index, double distanceKm) {
+    }
+
+    public SphereKdTree(double[] latitudes, double[] longitudes, int count) {
+        this.ids = new int[count];
+        this.coords = new double[count * 3];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+            toUnitVector(latitudes[i], longitudes[i], coords, 3 * i);
+        }
+        sort(0, count - 1, 0);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * The k points closest to (latitude, longitude) that pass the filter, nearest first.
+     * Subtrees that cannot beat the current k-th best are skipped.
+     */
+    public Neighbor[] nearest(double latitude, double longitude, int k, IntPredicate filter) {
+        if (k <= 0 || ids.length == 0) return new Neighbor[0];
+        double[] q = new double[3];
+        toUnitVector(latitude, longitude, q, 0);
+
+        Heap heap = new Heap(Math.min(k, ids.length));
+        search(0, ids.length - 1, 0, q, heap, filter);
+
+        Neighbor[] result = new Neighbor[heap.size];
+        for (int i = heap.size - 1; i >= 0; i--) {
+            result[i] = new Neighbor(heap.index[0], chordToKm(Math.sqrt(heap.dist[0])));
+            heap.pop();
+        }
+        return result;
+    }
+
+    private void search(int left, int right, int axis, double[] q, Heap heap, IntPredicate filter) {
+        if (left > right) return;
+        if (right - left <= NODE_SIZE) {
+            for (int i = left; i <= right; i++) {
+                offer(i, q, heap, filter);
+            }
+            return;
+        }
+
+        int m = (left + right) >>> 1;
+        offer(m, q, heap, filter);
+
+        double diff = q[axis] - coords[3 * m + axis];
+        int next = (axis + 1) % 3;
+        if (diff <= 0) {
+            search(left, m - 1, next, q, heap, filter);
+            if (!heap.isFull() || diff * diff < heap.worst()) search(m + 1, right, next, q, heap, filter);
+        } else {
+            search(m + 1, right, next, q, heap, filter);
+            if (!heap.isFull() || diff * diff < heap.worst()) search(left, m - 1, next, q, heap, filter);
+        }
+    }
+
+    private void offer(int i, double[] q, Heap heap, IntPredicate filter) {
+        double dx = coords[3 * i] - q[0];
+        double dy = coords[3 * i + 1] - q[1];
+        double dz = coords[3 * i + 2] - q[2];
+        double d2 = dx * dx + dy * dy + dz * dz;
+        if (heap.isFull() && d2 >= heap.worst()) return;
+        if (!filter.test(ids[i])) return;
+        heap.push(ids[i], d2);
+    }
+
+    private void sort(int left, int right, int axis) {
+        if (right - left <= NODE_SIZE) return;
+        int m = (left + right) >>> 1;
+        select(m, left, right, axis);
+        int next = (axis + 1) % 3;
+        sort(left, m - 1, next);
+        sort(m + 1, right, next);
+    }
+
+    private void select(int k, int left, int right, int axis) {
+        while (right > left) {
+            double pivot = coords[3 * ((left + right) >>> 1) + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coords[3 * i + axis] < pivot) i++;
+                while (coords[3 * j + axis] > pivot) j--;
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        for (int a = 0; a < 3; a++) {
+            double c = coords[3 * i + a];
+            coords[3 * i + a] = coords[3 * j + a];
+            coords[3 * j + a] = c;
+        }
+    }
+
+    private static void toUnitVector(double latitude, double longitude, double[] out, int offset) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        out[offset] = cosLat * Math.cos(lon);
+        out[offset + 1] = cosLat * Math.sin(lon);
+        out[offset + 2] = Math.sin(lat);
+    }
+
+    private static double chordToKm(double chord) {
+        return 2 * GeoUtils.EARTH_RADIUS_KM * Math.asin(Math.min(1, chord / 2));
+    }
+
+    /** Bounded max-heap on squared distance; the root is the current k-th best */
+    private static final class Heap {
+
+        final int[] index;
+        final double[] dist;
+        int size;
+
+        Heap(int capacity) {
+            index = new int[capacity];
+            dist = new double[capacity];
+        }
+
+        boolean isFull() {
+            return size == index.length;
+        }
+
+        double worst() {
+            return dist[0];
+        }
+
+        void push(int id, double d2) {
+            if (isFull()) {
+                index[0] = id;
+                dist[0] = d2;
+                siftDown(0);
+                return;
+            }
+            int i = size++;
+            index[i] = id;
+            dist[i] = d2;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (dist[parent] >= dist[i]) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        void pop() {
+            size--;
+            index[0] = index[size];
+            dist[0] = dist[size];
+            siftDown(0);
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int l = 2 * i + 1;
+                int r = l + 1;
+                int largest = i;
+                if (l < size && dist[l] > dist[largest]) largest = l;
+                if (r < size && dist[r] > dist[largest]) largest = r;
+                if (largest == i) return;
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int id = index[a];
+            index[a] = index[b];
+            index[b] = id;
+            double d = dist[a];
+            dist[a] = dist[b];
+            dist[b] = d;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.boardinghouse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+    /** Skewed traffic over more keys than the sketch has columns, so collisions are certain */
+    private static Map<Long, Integer> addSkewed(CountMinSketch sketch, int keys, int events, long seed) {
+        Random random = new Random(seed);
+        Map<Long, Integer> exact = new HashMap<>();
+        for (int i = 0; i < events; i++) {
+            long key = (long) (keys * Math.pow(random.nextDouble(), 3));
+            int estimate = sketch.add(key);
+            int count = exact.merge(key, 1, Integer::sum);
+            assertTrue(estimate >= count, "add() undercounted key " + key);
+        }
+        return exact;
+    }
+
+    @Test
+    void neverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 256, 42);
+        Map<Long, Integer> exact = addSkewed(sketch, 5_000, 50_000, 1);
+        exact.forEach((key, count) ->
+                assertTrue(sketch.estimate(key) >= count, "estimate undercounted key " + key));
+    }
+
+    @Test
+    void overcountsStayWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024, 7);
+        Map<Long, Integer> exact = addSkewed(sketch, 20_000, 100_000, 2);
+        double bound = Math.E / sketch.getWidth() * sketch.getTotal();
+        long over = exact.entrySet().stream()
+                .filter(e -> sketch.estimate(e.getKey()) - e.getValue() > bound)
+                .count();
+        // Each key exceeds the bound with probability at most e^-depth (~1.8%)
+        assertTrue(over <= exact.size() * 0.02, over + " of " + exact.size() + " keys over the bound");
+    }
+
+    @Test
+    void halvingKeepsEstimatesAboveHalfTheCount() {
+        CountMinSketch sketch = new CountMinSketch(3, 128, 3);
+        Map<Long, Integer> exact = addSkewed(sketch, 1_000, 10_000, 3);
+        long total = sketch.getTotal();
+        sketch.halve();
+        assertEquals(total / 2, sketch.getTotal());
+        exact.forEach((key, count) -> assertTrue(sketch.estimate(key) >= count / 2));
+    }
+
+    @Test
+    void widthIsRoundedUpToAPowerOfTwo() {
+        assertEquals(1024, new CountMinSketch(2, 1000, 0).getWidth());
+        assertEquals(1024, new CountMinSketch(2, 1024, 0).getWidth());
+    }
+}
@@ -0,0 +1,99 @@
+package com.boardinghouse.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    private static final int P = 4;
+
+    /** A hash that lands in register index with the given rank (1..64-P+1) */
+    private static long hashFor(int index, int rank) {
+        long rest = rank > 64 - P ? 0 : 1L << (64 - P - rank);
+        return ((long) index << (64 - P)) | rest;
+    }
+
+    /** Distinct value per register, so neighbours sharing a byte catch packing mistakes */
+    private static int rankFor(int index) {
+        return (index * 37) % (64 - P + 1) + 1;
+    }
+
+    @Test
+    void registersRoundTripThroughThePackedBytes() {
+        HyperLogLog hll = new HyperLogLog(P);
+        int m = 1 << P;
+        for (int i = 0; i < m; i++) {
+            assertTrue(hll.offer(hashFor(i, rankFor(i))));
+        }
+
+        HyperLogLog restored = HyperLogLog.fromBytes(P, hll.toBytes());
+        assertArrayEquals(hll.toBytes(), restored.toBytes());
+        for (int i = 0; i < m; i++) {
+            int rank = rankFor(i);
+            // Not above the stored value: unchanged; one above: raised
+            assertFalse(restored.offer(hashFor(i, rank)), "register " + i);
+            if (rank > 1) assertFalse(restored.offer(hashFor(i, rank - 1)), "register " + i);
+            if (rank < 64 - P + 1) assertTrue(restored.offer(hashFor(i, rank + 1)), "register " + i);
+        }
+    }
+
+    @Test
+    void maximumRankFitsInARegister() {
+        HyperLogLog hll = new HyperLogLog(P);
+        assertTrue(hll.offer(hashFor(3, 64 - P + 1)));
+        HyperLogLog restored = HyperLogLog.fromBytes(P, hll.toBytes());
+        assertFalse(restored.offer(hashFor(3, 64 - P + 1)));
+        // The neighbours are untouched
+        assertTrue(restored.offer(hashFor(2, 1)));
+        assertTrue(restored.offer(hashFor(4, 1)));
+    }
+
+    @Test
+    void estimateIsWithinTheErrorBound() {
+        // p = 11: about 2.3% standard error; allow three of them
+        for (int n : new int[]{100, 1_000, 10_000, 100_000}) {
+            HyperLogLog hll = new HyperLogLog(11);
+            for (int i = 0; i < n; i++) {
+                hll.offer(HyperLogLog.hash("viewer-" + i));
+            }
+            double error = Math.abs(hll.estimate() - n) / (double) n;
+            assertTrue(error < 0.07, "n=" + n + " estimate=" + hll.estimate());
+        }
+    }
+
+    @Test
+    void duplicatesDontChangeTheSketch() {
+        HyperLogLog hll = new HyperLogLog(11);
+        for (int i = 0; i < 1_000; i++) {
+            hll.offer(HyperLogLog.hash("viewer-" + i));
+        }
+        byte[] before = hll.toBytes();
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(hll.offer(HyperLogLog.hash("viewer-" + i)));
+        }
+        assertArrayEquals(before, hll.toBytes());
+    }
+
+    @Test
+    void mergeCountsTheUnion() {
+        HyperLogLog a = new HyperLogLog(11);
+        HyperLogLog b = new HyperLogLog(11);
+        for (int i = 0; i < 6_000; i++) a.offer(HyperLogLog.hash("viewer-" + i));
+        for (int i = 4_000; i < 10_000; i++) b.offer(HyperLogLog.hash("viewer-" + i));
+        a.merge(b);
+        assertTrue(Math.abs(a.estimate() - 10_000) < 700, "estimate=" + a.estimate());
+    }
+
+    @Test
+    void rejectsMismatchedSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(11, new byte[10]));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(11).merge(new HyperLogLog(12)));
+        assertEquals(0, new HyperLogLog(11).estimate());
+    }
+}
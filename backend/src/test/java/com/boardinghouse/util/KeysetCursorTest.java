@@ -0,0 +1,88 @@
+package com.boardinghouse.util;
+
+import com.boardinghouse.dto.CursorPage;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+
+    private record Row(Long id, LocalDateTime createdAt) implements KeysetCursor.Keyed {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+    }
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        for (KeysetCursor cursor : List.of(
+                new KeysetCursor(LocalDateTime.of(2024, 2, 29, 13, 45, 7, 123_456_789), 42),
+                new KeysetCursor(LocalDateTime.of(2024, 1, 1, 0, 0), Long.MAX_VALUE),
+                new KeysetCursor(LocalDateTime.of(1999, 12, 31, 23, 59, 59), 0))) {
+            String encoded = cursor.encode();
+            assertTrue(encoded.matches("[A-Za-z0-9_-]+"), "not URL-safe: " + encoded);
+            assertEquals(cursor, KeysetCursor.decode(encoded));
+        }
+    }
+
+    @Test
+    void blankCursorIsTheFirstPage() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+        assertNull(KeysetCursor.decode("  "));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode("not a cursor!"));
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode("bm8tYmFy"));
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode("MjAyNC0wMS0wMVQwMDowMHx4"));
+    }
+
+    @Test
+    void pagesWalkEveryRowOnce() {
+        // (createdAt desc, id desc), with several rows sharing a timestamp
+        List<Row> rows = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 0);
+        for (int i = 0; i < 23; i++) {
+            rows.add(new Row((long) (100 - i), start.minusMinutes(i / 3)));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Long> page = KeysetCursor.page(cursor, 5, 50, (after, pageable) -> rows.stream()
+                    .filter(r -> after == null || r.getCreatedAt().isBefore(after.createdAt())
+                            || (r.getCreatedAt().equals(after.createdAt()) && r.getId() < after.id()))
+                    .limit(pageable.getPageSize())
+                    .toList(), Row::getId);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(rows.stream().map(Row::getId).toList(), seen);
+        assertEquals(5, pages);
+    }
+
+    @Test
+    void limitOutsideTheRangeIsRejected() {
+        assertThrows(RuntimeException.class, () -> KeysetCursor.page(null, 0, 50, (c, p) -> List.<Row>of(), Row::getId));
+        assertThrows(RuntimeException.class, () -> KeysetCursor.page(null, 51, 50, (c, p) -> List.<Row>of(), Row::getId));
+    }
+}
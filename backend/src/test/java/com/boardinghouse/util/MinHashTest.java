@@ -0,0 +1,53 @@
+package com.boardinghouse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashTest {
+
+    private final MinHash minHash = new MinHash(256, 11);
+
+    private static List<String> features(int from, int to) {
+        List<String> features = new ArrayList<>();
+        for (int i = from; i < to; i++) features.add("feature-" + i);
+        return features;
+    }
+
+    @Test
+    void signatureDependsOnlyOnTheSet() {
+        List<String> features = features(0, 50);
+        int[] signature = minHash.signature(features);
+
+        List<String> shuffled = new ArrayList<>(features);
+        Collections.shuffle(shuffled, new Random(5));
+        shuffled.addAll(features.subList(0, 10));
+        assertArrayEquals(signature, minHash.signature(shuffled));
+        assertArrayEquals(signature, new MinHash(256, 11).signature(features));
+        assertEquals(256, signature.length);
+    }
+
+    @Test
+    void identicalSetsEstimateOne() {
+        assertEquals(1.0, MinHash.estimateJaccard(minHash.signature(features(0, 40)), minHash.signature(features(0, 40))));
+    }
+
+    @Test
+    void estimateTracksTheExactJaccard() {
+        // |A ∩ B| / |A ∪ B| for A = [0, 300), B = [from, from + 300)
+        for (int from : new int[]{0, 60, 150, 240, 300}) {
+            double exact = (300.0 - from) / (300.0 + from);
+            double estimate = MinHash.estimateJaccard(minHash.signature(features(0, 300)),
+                    minHash.signature(features(from, from + 300)));
+            // Standard error is at most sqrt(0.25 / 256) ~ 0.031
+            assertTrue(Math.abs(estimate - exact) < 0.1, "from=" + from + " estimate=" + estimate);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.boardinghouse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointKdTreeTest {
+
+    private static final int COUNT = 3_000;
+
+    private final double[] xs = new double[COUNT];
+    private final double[] ys = new double[COUNT];
+    private final Random random = new Random(17);
+
+    PointKdTreeTest() {
+        for (int i = 0; i < COUNT; i++) {
+            // Some duplicate coordinates, which split across nodes
+            xs[i] = i % 10 == 0 ? 0.5 : random.nextDouble();
+            ys[i] = i % 10 == 0 ? 0.5 : random.nextDouble();
+        }
+    }
+
+    private static List<Integer> sorted(List<Integer> ids) {
+        Collections.sort(ids);
+        return ids;
+    }
+
+    @Test
+    void rangeAgreesWithBruteForce() {
+        PointKdTree tree = new PointKdTree(xs.clone(), ys.clone(), COUNT, 4);
+        for (int q = 0; q < 200; q++) {
+            double minX = random.nextDouble() - 0.2, minY = random.nextDouble() - 0.2;
+            double maxX = minX + random.nextDouble() * 0.5, maxY = minY + random.nextDouble() * 0.5;
+
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < COUNT; i++) {
+                if (xs[i] >= minX && xs[i] <= maxX && ys[i] >= minY && ys[i] <= maxY) expected.add(i);
+            }
+            List<Integer> actual = new ArrayList<>();
+            tree.range(minX, minY, maxX, maxY, actual::add);
+            assertEquals(expected, sorted(actual));
+        }
+    }
+
+    @Test
+    void withinAgreesWithBruteForce() {
+        PointKdTree tree = new PointKdTree(xs, ys, COUNT, 4);
+        for (int q = 0; q < 200; q++) {
+            double qx = random.nextDouble(), qy = random.nextDouble(), r = random.nextDouble() * 0.3;
+
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < COUNT; i++) {
+                double dx = xs[i] - qx, dy = ys[i] - qy;
+                if (dx * dx + dy * dy <= r * r) expected.add(i);
+            }
+            List<Integer> actual = new ArrayList<>();
+            tree.within(qx, qy, r, actual::add);
+            assertEquals(expected, sorted(actual));
+        }
+    }
+
+    @Test
+    void emptyTreeReportsNothing() {
+        PointKdTree tree = new PointKdTree(new double[0], new double[0], 0);
+        List<Integer> actual = new ArrayList<>();
+        tree.range(-1, -1, 1, 1, actual::add);
+        tree.within(0, 0, 1, actual::add);
+        assertTrue(actual.isEmpty());
+        assertEquals(0, tree.size());
+    }
+}
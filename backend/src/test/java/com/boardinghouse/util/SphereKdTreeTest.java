@@ -0,0 +1,95 @@
+package com.boardinghouse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SphereKdTreeTest {
+
+    private static final int COUNT = 2_000;
+
+    private final double[] latitudes = new double[COUNT];
+    private final double[] longitudes = new double[COUNT];
+    private final Random random = new Random(23);
+
+    SphereKdTreeTest() {
+        for (int i = 0; i < COUNT; i++) {
+            if (i < COUNT / 2) {
+                // A dense city-sized cluster, like the listings around one campus
+                latitudes[i] = 10.3 + random.nextDouble() * 0.1;
+                longitudes[i] = 123.85 + random.nextDouble() * 0.1;
+            } else {
+                // Uniform on the sphere, including the poles and the antimeridian
+                latitudes[i] = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+                longitudes[i] = random.nextDouble() * 360 - 180;
+            }
+        }
+    }
+
+    private int[] bruteForce(double lat, double lon, int k, IntPredicate filter) {
+        return IntStream.range(0, COUNT)
+                .filter(filter)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> GeoUtils.haversineKm(lat, lon, latitudes[i], longitudes[i])))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private void assertNearest(SphereKdTree tree, double lat, double lon, int k, IntPredicate filter) {
+        int[] expected = bruteForce(lat, lon, k, filter);
+        SphereKdTree.Neighbor[] actual = tree.nearest(lat, lon, k, filter);
+        assertEquals(expected.length, actual.length);
+        for (int j = 0; j < expected.length; j++) {
+            double expectedKm = GeoUtils.haversineKm(lat, lon, latitudes[expected[j]], longitudes[expected[j]]);
+            // Compare distances, so exact ties may come back in either order
+            assertEquals(expectedKm, actual[j].distanceKm(), 1e-6, "neighbour " + j);
+            assertEquals(expectedKm, GeoUtils.haversineKm(lat, lon,
+                    latitudes[actual[j].index()], longitudes[actual[j].index()]), 1e-6, "neighbour " + j);
+        }
+    }
+
+    @Test
+    void nearestAgreesWithBruteForce() {
+        SphereKdTree tree = new SphereKdTree(latitudes, longitudes, COUNT);
+        for (int q = 0; q < 100; q++) {
+            double lat = q % 2 == 0 ? 10.3 + random.nextDouble() * 0.1 : Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            double lon = q % 2 == 0 ? 123.85 + random.nextDouble() * 0.1 : random.nextDouble() * 360 - 180;
+            assertNearest(tree, lat, lon, 1 + q % 20, i -> true);
+        }
+    }
+
+    @Test
+    void nearestRespectsTheFilter() {
+        SphereKdTree tree = new SphereKdTree(latitudes, longitudes, COUNT);
+        for (int q = 0; q < 50; q++) {
+            int residue = q % 7;
+            double lat = 10.3 + random.nextDouble() * 0.1, lon = 123.85 + random.nextDouble() * 0.1;
+            assertNearest(tree, lat, lon, 10, i -> i % 7 == residue);
+        }
+    }
+
+    @Test
+    void nearestAcrossThePoleAndTheAntimeridian() {
+        SphereKdTree tree = new SphereKdTree(latitudes, longitudes, COUNT);
+        assertNearest(tree, 89.9, 0, 5, i -> true);
+        assertNearest(tree, -89.9, 170, 5, i -> true);
+        assertNearest(tree, 0, 179.99, 5, i -> true);
+        assertNearest(tree, 0, -179.99, 5, i -> true);
+    }
+
+    @Test
+    void kLargerThanTheTreeReturnsEveryMatch() {
+        SphereKdTree tree = new SphereKdTree(
+                Arrays.copyOf(latitudes, 30), Arrays.copyOf(longitudes, 30), 30);
+        assertEquals(30, tree.nearest(0, 0, 100, i -> true).length);
+        assertEquals(15, tree.nearest(0, 0, 100, i -> i % 2 == 0).length);
+        assertEquals(0, tree.nearest(0, 0, 0, i -> true).length);
+    }
+}
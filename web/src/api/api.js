@@ -15,4 +15,54 @@ API.interceptors.request.use((config) => {
   return config;
 });
 
+// Access tokens are short-lived: on 401, exchange the refresh token once and retry.
+// Concurrent 401s share a single refresh call because refresh tokens rotate on use.
+let refreshPromise = null;
+
+// Dispatched on window with the new access token so AuthContext can update its state
+export const TOKEN_REFRESHED_EVENT = "auth:token-refreshed";
+
+export function refreshAccessToken() {
+  const refreshToken = sessionStorage.getItem("refreshToken");
+  if (!refreshToken) return Promise.reject(new Error("No refresh token"));
+
+  if (!refreshPromise) {
+    refreshPromise = axios
+      .post(`${API_BASE_URL}/api/auth/refresh`, { refreshToken })
+      .then((res) => {
+        sessionStorage.setItem("token", res.data.token);
+        sessionStorage.setItem("refreshToken", res.data.refreshToken);
+        window.dispatchEvent(new CustomEvent(TOKEN_REFRESHED_EVENT, { detail: res.data.token }));
+        return res.data.token;
+      })
+      .catch((err) => {
+        sessionStorage.removeItem("token");
+        sessionStorage.removeItem("refreshToken");
+        throw err;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+}
+
+API.interceptors.response.use(
+  (response) => response,
+  async (error) => {
+    const original = error.config;
+    if (error.response?.status === 401 && original && !original._retried) {
+      original._retried = true;
+      try {
+        const token = await refreshAccessToken();
+        original.headers.Authorization = `Bearer ${token}`;
+        return API(original);
+      } catch {
+        // fall through to the original 401
+      }
+    }
+    return Promise.reject(error);
+  }
+);
+
 export default API;
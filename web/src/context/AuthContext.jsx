@@ -1,4 +1,5 @@
 import { createContext, useContext, useState, useEffect } from "react";
+import API, { TOKEN_REFRESHED_EVENT } from "../api/api";
 
 const AuthContext = createContext();
 const API_BASE = (import.meta.env.VITE_API_URL || "http://localhost:8080") + "/api";
@@ -36,6 +37,7 @@ export function AuthProvider({ children }) {
       const data = await res.json();
       setToken(data.token);
       storage.setItem("token", data.token);
+      storage.setItem("refreshToken", data.refreshToken);
 
       const userData = { email: data.email, role: data.role, name: data.name, id: data.id };
       setUser(userData);
@@ -76,6 +78,7 @@ export function AuthProvider({ children }) {
       const data = await res.json();
       setToken(data.token);
       storage.setItem("token", data.token);
+      storage.setItem("refreshToken", data.refreshToken);
 
       var basicUserData = { email: data.email, role: data.role, name: data.name, id: data.id };
       setUser(basicUserData);
@@ -117,6 +120,7 @@ export function AuthProvider({ children }) {
 
     // IMPORTANT: Set storage FIRST before state, so PrivateRoute can read it immediately
     storage.setItem("token", authToken);
+    if (params.refreshToken) storage.setItem("refreshToken", params.refreshToken);
     var userData = { email: email, name: name, role: role, id: Number(id) || null, picture: picture };
     storage.setItem("user", JSON.stringify(userData));
 
@@ -148,70 +152,72 @@ export function AuthProvider({ children }) {
     return true;
   };
 
+  // Profile calls go through the shared axios instance so an expired access token
+  // is refreshed and the request retried instead of failing with 401
   const fetchProfile = async () => {
-    if (!token) return null;
+    if (!token && !storage.getItem("token")) return null;
 
     try {
-      const res = await fetch(API_BASE + "/profile", {
-        headers: {
-          "Authorization": "Bearer " + token,
-          "Content-Type": "application/json"
-        },
-      });
-
-      if (!res.ok) {
-        if (res.status === 401) {
-          logout();
-          return null;
-        }
-        throw new Error("Failed to fetch profile");
-      }
-
-      const data = await res.json();
-      setUser(data);
-      storage.setItem("user", JSON.stringify(data));
-      return data;
+      const res = await API.get("/profile");
+      setUser(res.data);
+      storage.setItem("user", JSON.stringify(res.data));
+      return res.data;
     } catch (error) {
+      // Still 401 after the interceptor's refresh attempt: the session is really gone
+      if (error.response?.status === 401) {
+        logout();
+        return null;
+      }
       console.error("Fetch profile error:", error);
-      throw error;
+      throw new Error("Failed to fetch profile");
     }
   };
 
   const updateProfile = async (updates) => {
-    if (!token) throw new Error("Not authenticated");
+    if (!token && !storage.getItem("token")) throw new Error("Not authenticated");
 
     try {
-      const res = await fetch(API_BASE + "/profile", {
-        method: "PUT",
-        headers: {
-          "Content-Type": "application/json",
-          "Authorization": "Bearer " + token
-        },
-        body: JSON.stringify(updates),
-      });
-
-      if (!res.ok) {
-        const errorData = await res.json();
-        throw new Error(errorData.message || "Failed to update profile");
-      }
-
-      const data = await res.json();
-      setUser(data);
-      storage.setItem("user", JSON.stringify(data));
-      return data;
+      const res = await API.put("/profile", updates);
+      setUser(res.data);
+      storage.setItem("user", JSON.stringify(res.data));
+      return res.data;
     } catch (error) {
       console.error("Update profile error:", error);
-      throw error;
+      throw new Error(error.response?.data?.message || "Failed to update profile");
     }
   };
 
   const logout = () => {
+    // Revoke the tokens server-side; local state is cleared regardless of the outcome
+    const currentToken = storage.getItem("token");
+    const refreshToken = storage.getItem("refreshToken");
+    if (currentToken || refreshToken) {
+      fetch(API_BASE + "/auth/logout", {
+        method: "POST",
+        headers: {
+          "Content-Type": "application/json",
+          ...(currentToken ? { "Authorization": "Bearer " + currentToken } : {})
+        },
+        body: JSON.stringify({ refreshToken: refreshToken }),
+      }).catch(function(err) {
+        console.warn("Logout request failed:", err);
+      });
+    }
+
     setUser(null);
     setToken(null);
     storage.removeItem("token");
+    storage.removeItem("refreshToken");
     storage.removeItem("user");
   };
 
+  // Keep the token state in step with refreshes done by the axios interceptor
+  useEffect(() => {
+    const onRefreshed = (e) => setToken(e.detail);
+    window.addEventListener(TOKEN_REFRESHED_EVENT, onRefreshed);
+    return () => window.removeEventListener(TOKEN_REFRESHED_EVENT, onRefreshed);
+  }, []);
+
   useEffect(() => {
     const storedUser = storage.getItem("user");
     if (storedUser && !user) {
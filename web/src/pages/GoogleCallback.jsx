@@ -22,6 +22,7 @@ export default function GoogleCallback() {
   useEffect(() => {
     const processCallback = async () => {
       const token = searchParams.get("token");
+      const refreshToken = searchParams.get("refreshToken");
       const email = searchParams.get("email");
       const name = searchParams.get("name");
       const role = searchParams.get("role");
@@ -31,7 +32,7 @@ export default function GoogleCallback() {
       if (token && email && name && role) {
         try {
           // Wait for the auth context to fully process the callback
-          await handleGoogleCallback({ token, email, name, role, id, picture });
+          await handleGoogleCallback({ token, refreshToken, email, name, role, id, picture });
           
           // Small delay to ensure state is propagated
           await new Promise(resolve => setTimeout(resolve, 150));